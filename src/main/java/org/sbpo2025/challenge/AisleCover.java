@@ -0,0 +1,256 @@
+package org.sbpo2025.challenge;
+
+import com.google.ortools.sat.BoolVar;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpSolver;
+import com.google.ortools.sat.CpSolverStatus;
+import com.google.ortools.sat.LinearExpr;
+import com.google.ortools.sat.LinearExprBuilder;
+
+/*
+ * Subproblema de cobertura: dado um conjunto de pedidos fixo, menor conjunto de
+ * corredores cujo estoque cobre a demanda de cada item (multi-cover).
+ *
+ * cover(): gulosa que abre o corredor que cobre mais unidades ainda descobertas (ganhos
+ * atualizados incrementalmente pelo indice item -> corredores) seguida de reverse-delete
+ * (fecha, do ultimo aberto para o primeiro, quem nao faz falta). Usa so buffers de
+ * trabalho alocados no construtor: nao aloca nada por chamada, mas tambem nao e
+ * thread-safe (uma instancia por thread).
+ *
+ * coverExact(): ILP de cobertura no CP-SAT restrito aos corredores candidatos, com a
+ * gulosa como hint e limite de tempo curto.
+ */
+public class AisleCover {
+    private final SparseInstance instance;
+
+    // Por item: demanda, demanda ainda descoberta e oferta dos corredores escolhidos
+    private final int[] demand;
+    private final int[] remaining;
+    private final int[] supply;
+    private final int[] items;
+    private int nDemanded;
+
+    // Por corredor: ganho guloso, carimbo de candidato/escolhido e ordem de escolha
+    private final long[] gain;
+    private final int[] candidateStamp;
+    private final int[] selectedStamp;
+    private final int[] candidates;
+    private int nCandidates;
+    private final int[] selected;
+    private int epoch;
+
+    private final int[] orderBuffer;
+    private final int[] aisleBuffer;
+
+    public AisleCover(SparseInstance instance) {
+        this.instance = instance;
+        this.demand = new int[instance.nItems()];
+        this.remaining = new int[instance.nItems()];
+        this.supply = new int[instance.nItems()];
+        this.items = new int[instance.nItems()];
+        this.gain = new long[instance.nAisles()];
+        this.candidateStamp = new int[instance.nAisles()];
+        this.selectedStamp = new int[instance.nAisles()];
+        this.candidates = new int[instance.nAisles()];
+        this.selected = new int[instance.nAisles()];
+        this.orderBuffer = new int[instance.nOrders()];
+        this.aisleBuffer = new int[instance.nAisles()];
+    }
+
+    /*
+     * Escreve em aisles os corredores da cobertura e retorna quantos sao, ou -1 se nem
+     * todos os corredores juntos cobrem os pedidos
+     */
+    public int cover(int[] orders, int nOrders, int[] aisles) {
+        epoch++;
+        loadDemand(orders, nOrders);
+        int uncovered = nDemanded;
+
+        // Candidatos: corredores com algum item demandado; ganho = unidades que cobririam
+        nCandidates = 0;
+        for (int d = 0; d < nDemanded; d++) {
+            int item = items[d];
+            for (int k = instance.itemAisleBegin(item); k < instance.itemAisleEnd(item); k++) {
+                int aisle = instance.itemAisle(k);
+                if (candidateStamp[aisle] != epoch) {
+                    candidateStamp[aisle] = epoch;
+                    candidates[nCandidates++] = aisle;
+                    gain[aisle] = 0;
+                }
+                gain[aisle] += Math.min(instance.itemAisleQuantity(k), demand[item]);
+            }
+        }
+
+        int nSelected = 0;
+        while (uncovered > 0) {
+            int best = -1;
+            for (int j = 0; j < nCandidates; j++) {
+                int aisle = candidates[j];
+                if (selectedStamp[aisle] != epoch && gain[aisle] > 0 && (best < 0 || gain[aisle] > gain[best])) {
+                    best = aisle;
+                }
+            }
+            if (best < 0) {
+                resetScratch(nSelected);
+                return -1;
+            }
+            selectedStamp[best] = epoch;
+            selected[nSelected++] = best;
+            for (int k = instance.aisleBegin(best); k < instance.aisleEnd(best); k++) {
+                int item = instance.aisleItem(k);
+                supply[item] += instance.aisleQuantity(k);
+                int before = remaining[item];
+                if (before == 0) {
+                    continue;
+                }
+                int after = Math.max(0, before - instance.aisleQuantity(k));
+                remaining[item] = after;
+                if (after == 0) {
+                    uncovered--;
+                }
+                for (int j = instance.itemAisleBegin(item); j < instance.itemAisleEnd(item); j++) {
+                    int quantity = instance.itemAisleQuantity(j);
+                    gain[instance.itemAisle(j)] -= Math.min(quantity, before) - Math.min(quantity, after);
+                }
+            }
+        }
+
+        // Reverse-delete: os ultimos escolhidos (menor ganho) saem primeiro se nao fizerem falta
+        int nKept = 0;
+        for (int j = nSelected - 1; j >= 0; j--) {
+            int aisle = selected[j];
+            boolean removable = true;
+            for (int k = instance.aisleBegin(aisle); k < instance.aisleEnd(aisle) && removable; k++) {
+                int item = instance.aisleItem(k);
+                removable = supply[item] - instance.aisleQuantity(k) >= demand[item];
+            }
+            if (removable) {
+                for (int k = instance.aisleBegin(aisle); k < instance.aisleEnd(aisle); k++) {
+                    supply[instance.aisleItem(k)] -= instance.aisleQuantity(k);
+                }
+                selectedStamp[aisle] = 0;
+            }
+        }
+        for (int j = 0; j < nSelected; j++) {
+            if (selectedStamp[selected[j]] == epoch) {
+                aisles[nKept++] = selected[j];
+            }
+        }
+        resetScratch(nSelected);
+        return nKept;
+    }
+
+    private void loadDemand(int[] orders, int nOrders) {
+        nDemanded = 0;
+        for (int j = 0; j < nOrders; j++) {
+            int order = orders[j];
+            for (int k = instance.orderBegin(order); k < instance.orderEnd(order); k++) {
+                int item = instance.orderItem(k);
+                if (demand[item] == 0) {
+                    items[nDemanded++] = item;
+                }
+                demand[item] += instance.orderQuantity(k);
+            }
+        }
+        for (int d = 0; d < nDemanded; d++) {
+            remaining[items[d]] = demand[items[d]];
+        }
+    }
+
+    private void resetScratch(int nSelected) {
+        for (int d = 0; d < nDemanded; d++) {
+            demand[items[d]] = 0;
+            remaining[items[d]] = 0;
+        }
+        for (int j = 0; j < nSelected; j++) {
+            for (int k = instance.aisleBegin(selected[j]); k < instance.aisleEnd(selected[j]); k++) {
+                supply[instance.aisleItem(k)] = 0;
+            }
+        }
+    }
+
+    /*
+     * Cobertura minima exata (ou a melhor achada no limite de tempo) pelo CP-SAT, partindo
+     * da gulosa. Aloca o modelo a cada chamada, entao e para poucas chamadas.
+     */
+    public int coverExact(int[] orders, int nOrders, int[] aisles, long timeLimitMillis) {
+        int greedy = cover(orders, nOrders, aisles);
+        if (greedy <= 1) {
+            return greedy;
+        }
+        NativeLibraries.ensureLoaded();
+        epoch++;
+        loadDemand(orders, nOrders);
+        CpModel model = new CpModel();
+        BoolVar[] open = new BoolVar[instance.nAisles()];
+        nCandidates = 0;
+        for (int d = 0; d < nDemanded; d++) {
+            int item = items[d];
+            LinearExprBuilder row = LinearExpr.newBuilder();
+            for (int k = instance.itemAisleBegin(item); k < instance.itemAisleEnd(item); k++) {
+                int aisle = instance.itemAisle(k);
+                if (open[aisle] == null) {
+                    open[aisle] = model.newBoolVar("");
+                    candidates[nCandidates++] = aisle;
+                }
+                row.addTerm(open[aisle], Math.min(instance.itemAisleQuantity(k), demand[item]));
+            }
+            model.addGreaterOrEqual(row, demand[item]);
+        }
+        resetScratch(0);
+
+        LinearExprBuilder count = LinearExpr.newBuilder();
+        for (int j = 0; j < greedy; j++) {
+            selectedStamp[aisles[j]] = epoch;
+        }
+        for (int j = 0; j < nCandidates; j++) {
+            count.add(open[candidates[j]]);
+            model.addHint(open[candidates[j]], selectedStamp[candidates[j]] == epoch ? 1 : 0);
+        }
+        model.addLessOrEqual(count, greedy);
+        model.minimize(count);
+
+        CpSolver solver = new CpSolver();
+        solver.getParameters().setMaxTimeInSeconds(Math.max(timeLimitMillis, 1) / 1000.0).setNumWorkers(1);
+        CpSolverStatus status = solver.solve(model);
+        if ((status != CpSolverStatus.OPTIMAL && status != CpSolverStatus.FEASIBLE)
+                || solver.objectiveValue() >= greedy) {
+            return greedy;
+        }
+        int nExact = 0;
+        for (int j = 0; j < nCandidates; j++) {
+            if (solver.booleanValue(open[candidates[j]])) {
+                aisles[nExact++] = candidates[j];
+            }
+        }
+        return nExact;
+    }
+
+    /*
+     * A mesma wave com a cobertura gulosa no lugar dos corredores, se ela usar menos
+     */
+    public CompactSolution shrink(CompactSolution wave) {
+        int nOrders = loadOrders(wave);
+        int nAisles = cover(orderBuffer, nOrders, aisleBuffer);
+        return nAisles <= 0 || nAisles >= wave.aisleCount() ? wave : withAisles(wave, nAisles);
+    }
+
+    public CompactSolution shrinkExact(CompactSolution wave, long timeLimitMillis) {
+        int nOrders = loadOrders(wave);
+        int nAisles = coverExact(orderBuffer, nOrders, aisleBuffer, timeLimitMillis);
+        return nAisles <= 0 || nAisles >= wave.aisleCount() ? wave : withAisles(wave, nAisles);
+    }
+
+    private int loadOrders(CompactSolution wave) {
+        for (int k = 0; k < wave.orderCount(); k++) {
+            orderBuffer[k] = wave.order(k);
+        }
+        return wave.orderCount();
+    }
+
+    private CompactSolution withAisles(CompactSolution wave, int nAisles) {
+        int[] aisles = new int[nAisles];
+        System.arraycopy(aisleBuffer, 0, aisles, 0, nAisles);
+        return CompactSolution.of(wave.orders(), aisles);
+    }
+}
@@ -0,0 +1,262 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPSolver;
+import com.google.ortools.linearsolver.MPVariable;
+
+/*
+ * Simetria e dominancia entre corredores. O estoque de cada corredor e comparado so nos
+ * itens que algum pedido atendivel pede, truncado na demanda total do item (estoque
+ * alem disso nunca e usado):
+ *   - corredores com o mesmo vetor (agrupados pelo hash do vetor esparso) sao
+ *     intercambiaveis: dentro da classe, c_{k+1} <= c_k;
+ *   - se a tem pelo menos o estoque de b em todo item (e nao sao iguais), trocar b por a
+ *     nunca piora a wave: c_b <= c_a;
+ *   - corredor sem item demandado nunca ajuda: c_b = 0.
+ * Juntas as restricoes sao validas: numa solucao otima que viole alguma, trocar b pelo
+ * dominante fechado diminui o potencial (estoque total, depois indice) sem mudar o
+ * objetivo. canonicalize() faz essas trocas numa wave pronta, entao hints e incumbentes
+ * das heuristicas satisfazem as restricoes.
+ */
+public class AisleSymmetry {
+    private final int nAisles;
+    private final boolean[] useless;
+    private int nClasses;
+    private int nSymmetric;
+    private int nDominance;
+
+    // Por corredor b: o anterior na classe (se houver) e os que dominam b estritamente
+    private final int[] dominatorStart;
+    private final int[] dominators;
+
+    public AisleSymmetry(SparseInstance instance, boolean[] servable) {
+        this.nAisles = instance.nAisles();
+        this.useless = new boolean[nAisles];
+
+        long[] demand = new long[instance.nItems()];
+        for (int o = 0; o < instance.nOrders(); o++) {
+            if (servable[o]) {
+                for (int k = instance.orderBegin(o); k < instance.orderEnd(o); k++) {
+                    demand[instance.orderItem(k)] += instance.orderQuantity(k);
+                }
+            }
+        }
+        int[][] items = new int[nAisles][];
+        int[][] stock = new int[nAisles][];
+        for (int a = 0; a < nAisles; a++) {
+            int n = 0;
+            for (int k = instance.aisleBegin(a); k < instance.aisleEnd(a); k++) {
+                n += demand[instance.aisleItem(k)] > 0 ? 1 : 0;
+            }
+            items[a] = new int[n];
+            stock[a] = new int[n];
+            n = 0;
+            for (int k = instance.aisleBegin(a); k < instance.aisleEnd(a); k++) {
+                int item = instance.aisleItem(k);
+                if (demand[item] > 0) {
+                    items[a][n] = item;
+                    stock[a][n++] = (int) Math.min(instance.aisleQuantity(k), demand[item]);
+                }
+            }
+            useless[a] = n == 0;
+        }
+
+        // Classes de equivalencia pelo hash do vetor esparso (confirmadas por igualdade)
+        int[] classOf = new int[nAisles];
+        int[] previous = new int[nAisles];
+        Arrays.fill(previous, -1);
+        Map<Integer, List<Integer>> buckets = new HashMap<>();
+        for (int a = 0; a < nAisles; a++) {
+            if (useless[a]) {
+                classOf[a] = -1;
+                continue;
+            }
+            int hash = 31 * Arrays.hashCode(items[a]) + Arrays.hashCode(stock[a]);
+            List<Integer> bucket = buckets.computeIfAbsent(hash, h -> new ArrayList<>());
+            classOf[a] = -1;
+            for (int j = bucket.size() - 1; j >= 0 && classOf[a] < 0; j--) {
+                int other = bucket.get(j);
+                if (Arrays.equals(items[a], items[other]) && Arrays.equals(stock[a], stock[other])) {
+                    classOf[a] = classOf[other];
+                    previous[a] = other;
+                    nSymmetric += previous[other] < 0 ? 2 : 1;
+                }
+            }
+            if (classOf[a] < 0) {
+                classOf[a] = nClasses++;
+            }
+            bucket.add(a);
+        }
+
+        // Dominancia estrita: a domina b se cobre o estoque de b em todo item de b. Os
+        // candidatos sao os corredores que tem o item de b com menos corredores.
+        int[] required = new int[instance.nItems()];
+        int[] start = new int[nAisles + 1];
+        List<int[]> lists = new ArrayList<>(nAisles);
+        for (int b = 0; b < nAisles; b++) {
+            int[] list = new int[0];
+            int n = 0;
+            if (previous[b] >= 0) {
+                list = new int[] {previous[b]};
+                n = 1;
+            }
+            if (!useless[b]) {
+                int rarest = items[b][0];
+                for (int item : items[b]) {
+                    if (instance.itemAisleEnd(item) - instance.itemAisleBegin(item)
+                            < instance.itemAisleEnd(rarest) - instance.itemAisleBegin(rarest)) {
+                        rarest = item;
+                    }
+                }
+                for (int k = 0; k < items[b].length; k++) {
+                    required[items[b][k]] = stock[b][k];
+                }
+                for (int k = instance.itemAisleBegin(rarest); k < instance.itemAisleEnd(rarest); k++) {
+                    int a = instance.itemAisle(k);
+                    if (a == b || classOf[a] == classOf[b] || !covers(items[a], stock[a], required, items[b].length)) {
+                        continue;
+                    }
+                    if (n == list.length) {
+                        list = Arrays.copyOf(list, Math.max(4, 2 * n));
+                    }
+                    list[n++] = a;
+                    nDominance++;
+                }
+                for (int item : items[b]) {
+                    required[item] = 0;
+                }
+            }
+            lists.add(Arrays.copyOf(list, n));
+            start[b + 1] = start[b] + n;
+        }
+        this.dominatorStart = start;
+        this.dominators = new int[start[nAisles]];
+        for (int b = 0; b < nAisles; b++) {
+            System.arraycopy(lists.get(b), 0, dominators, start[b], lists.get(b).length);
+        }
+    }
+
+    /*
+     * true se o vetor (items, stock) cobre required em todos os nRequired itens pedidos
+     */
+    private static boolean covers(int[] items, int[] stock, int[] required, int nRequired) {
+        int matched = 0;
+        for (int k = 0; k < items.length; k++) {
+            if (required[items[k]] > 0) {
+                if (stock[k] < required[items[k]]) {
+                    return false;
+                }
+                matched++;
+            }
+        }
+        return matched == nRequired;
+    }
+
+    public int classCount() {
+        return nClasses;
+    }
+
+    /*
+     * Corredores que estao numa classe com mais de um corredor
+     */
+    public int symmetricAisles() {
+        return nSymmetric;
+    }
+
+    public int dominancePairs() {
+        return nDominance;
+    }
+
+    public int uselessAisles() {
+        int count = 0;
+        for (boolean u : useless) {
+            count += u ? 1 : 0;
+        }
+        return count;
+    }
+
+    public String describe() {
+        return String.format("Aisle symmetry: %d classes, %d aisles in symmetric classes, %d dominance pairs, %d useless",
+                nClasses, nSymmetric, nDominance, uselessAisles());
+    }
+
+    /*
+     * Acrescenta as restricoes de ordem/dominancia ao modelo e fixa os corredores inuteis.
+     * Retorna quantas linhas foram criadas.
+     */
+    public int addTo(WaveModel model) {
+        MPSolver solver = model.solver();
+        MPVariable[] c = model.aisleVariables();
+        int rows = 0;
+        for (int b = 0; b < nAisles; b++) {
+            if (useless[b]) {
+                c[b].setUb(0);
+                continue;
+            }
+            for (int k = dominatorStart[b]; k < dominatorStart[b + 1]; k++) {
+                MPConstraint order = solver.makeConstraint(Double.NEGATIVE_INFINITY, 0, "");
+                order.setCoefficient(c[b], 1);
+                order.setCoefficient(c[dominators[k]], -1);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /*
+     * Troca cada corredor aberto por um dominante (ou anterior na classe) fechado ate nao
+     * haver mais troca, e tira os corredores inuteis. Mesmos pedidos; a wave continua
+     * viavel e nao usa mais corredores.
+     */
+    public CompactSolution canonicalize(CompactSolution wave) {
+        if (wave == null) {
+            return null;
+        }
+        boolean[] open = new boolean[nAisles];
+        for (int k = 0; k < wave.aisleCount(); k++) {
+            open[wave.aisle(k)] = true;
+        }
+        boolean changed = false;
+        for (boolean swapped = true; swapped; ) {
+            swapped = false;
+            for (int b = 0; b < nAisles; b++) {
+                if (!open[b]) {
+                    continue;
+                }
+                if (useless[b] && wave.aisleCount() > 1) {
+                    open[b] = false;
+                    swapped = changed = true;
+                    continue;
+                }
+                for (int k = dominatorStart[b]; k < dominatorStart[b + 1]; k++) {
+                    if (!open[dominators[k]]) {
+                        open[b] = false;
+                        open[dominators[k]] = true;
+                        swapped = changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+        if (!changed) {
+            return wave;
+        }
+        int count = 0;
+        for (boolean o : open) {
+            count += o ? 1 : 0;
+        }
+        int[] aisles = new int[count];
+        for (int a = 0, n = 0; a < nAisles; a++) {
+            if (open[a]) {
+                aisles[n++] = a;
+            }
+        }
+        return CompactSolution.of(wave.orders(), aisles);
+    }
+}
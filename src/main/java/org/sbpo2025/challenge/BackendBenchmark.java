@@ -0,0 +1,128 @@
+package org.sbpo2025.challenge;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Roda cada backend sobre todas as instancias dos diretorios informados e tabula
+ * objetivo x tempo. O input e uma lista de diretorios (ou arquivos) separados por
+ * virgula e o output e o CSV do relatorio. Com --strategies=<opcoes>;<opcoes>;... cada
+ * coluna "backend" e um conjunto de opcoes da linha de comando (backend, workers,
+ * thread-split, ...), que o --calibrate pode escolher por faixa de features.
+ */
+public class BackendBenchmark {
+    private static final long DEFAULT_TIME_LIMIT_MILLIS = 60_000;
+
+    private final RunOptions options;
+
+    public BackendBenchmark(RunOptions options) {
+        this.options = options;
+    }
+
+    public void run() {
+        List<File> instances = listInstances(options.inputPath);
+        long timeLimitMillis = options.timeLimitMillis >= 0 ? options.timeLimitMillis : DEFAULT_TIME_LIMIT_MILLIS;
+
+        List<String> rows = new ArrayList<>();
+        rows.add("instance,backend,objective,time_ms,status");
+        System.out.printf("%-28s %-10s %14s %10s  %s%n", "instance", "backend", "objective", "time_ms", "status");
+        List<String> strategies = options.strategies != null ? options.strategies : options.backends;
+        for (File file : instances) {
+            String instanceName = file.getParentFile().getName() + "/" + file.getName();
+            for (String backend : strategies) {
+                Challenge challenge = new Challenge();
+                challenge.readInput(file.getPath());
+                ChallengeSolver solver = challenge.newSolver(
+                        options.withFlags(RunOptions.strategyFlags(backend)));
+
+                long start = System.currentTimeMillis();
+                double objective = 0.0;
+                String status;
+                try {
+                    CompactSolution solution = solver.solveCompact(timeLimitMillis);
+                    if (solution != null) {
+                        objective = solver.computeObjectiveFunction(solution);
+                        status = "ok";
+                    } else {
+                        status = "no_solution";
+                    }
+                } catch (RuntimeException e) {
+                    status = "error: " + e.getMessage();
+                }
+                long elapsed = System.currentTimeMillis() - start;
+
+                rows.add(String.format("%s,%s,%.6f,%d,%s", instanceName, csvField(backend), objective, elapsed,
+                        status.replace(',', ';')));
+                System.out.printf("%-28s %-10s %14.4f %10d  %s%n", instanceName, backend, objective, elapsed, status);
+            }
+        }
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(options.outputPath))) {
+            for (String row : rows) {
+                writer.write(row);
+                writer.newLine();
+            }
+            System.out.println("Benchmark written to " + options.outputPath);
+        } catch (IOException e) {
+            System.err.println("Error writing benchmark to " + options.outputPath);
+            e.printStackTrace();
+        }
+    }
+
+    /*
+     * Estrategias com virgula (workers, thread-split) vao entre aspas
+     */
+    private static String csvField(String value) {
+        return value.indexOf(',') < 0 ? value : '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int k = 0; k < line.length(); k++) {
+            char ch = line.charAt(k);
+            if (quoted) {
+                if (ch == '"' && k + 1 < line.length() && line.charAt(k + 1) == '"') {
+                    field.append('"');
+                    k++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    static List<File> listInstances(String paths) {
+        List<File> instances = new ArrayList<>();
+        for (String path : paths.split(",")) {
+            File file = new File(path);
+            if (file.isDirectory()) {
+                File[] files = file.listFiles((dir, name) -> name.endsWith(".txt"));
+                if (files != null) {
+                    Arrays.sort(files);
+                    instances.addAll(Arrays.asList(files));
+                }
+            } else {
+                instances.add(file);
+            }
+        }
+        return instances;
+    }
+}
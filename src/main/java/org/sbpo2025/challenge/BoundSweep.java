@@ -0,0 +1,116 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.ortools.linearsolver.MPObjective;
+import com.google.ortools.linearsolver.MPVariable;
+
+/*
+ * Varredura de limites de wave: o modelo e construido uma unica vez (com os pedidos
+ * atendiveis para o maior UB) e cada par (LB, UB) so altera os limites da restricao
+ * waveSize, os coeficientes de corredor no objetivo e o limite superior dos pedidos
+ * maiores que o UB. Cada passo parte do melhor entre o incumbente do passo anterior e a
+ * gulosa para os novos limites, usado como incumbente inicial e como hint do solver, e
+ * termina com o WavePolisher sobre a wave do passo.
+ */
+public class BoundSweep {
+    public record Row(int waveSizeLB, int waveSizeUB, CompactSolution wave, double objective, long elapsedMillis) {
+    }
+
+    private final SparseInstance instance;
+    private final ItemCoverage coverage;
+    private final String solverId;
+    private final int numThreads;
+
+    public BoundSweep(SparseInstance instance, ItemCoverage coverage, String solverId, int numThreads) {
+        this.instance = instance;
+        this.coverage = coverage;
+        this.solverId = solverId;
+        this.numThreads = numThreads;
+    }
+
+    public List<Row> run(List<int[]> bounds, long timeLimitMillis) {
+        int maxLB = 0;
+        int maxUB = 0;
+        for (int[] bound : bounds) {
+            maxLB = Math.max(maxLB, bound[0]);
+            maxUB = Math.max(maxUB, bound[1]);
+        }
+        boolean[] servable = ChallengeSolver.findServableOrders(instance, coverage, maxUB);
+
+        List<Row> rows = new ArrayList<>(bounds.size());
+        MpSolverBackend backend = new MpSolverBackend(solverId, WaveModel.BuildMode.DIRECT, false);
+        try {
+            long buildStart = System.nanoTime();
+            backend.buildModel(instance, servable, maxLB, maxUB);
+            System.out.printf("Sweep model built in %d ms%n", (System.nanoTime() - buildStart) / 1_000_000);
+
+            WaveModel model = backend.model();
+            MPVariable[] p = model.orderVariables();
+            MPVariable[] c = model.aisleVariables();
+            MPObjective objective = model.solver().objective();
+            long deadline = System.currentTimeMillis() + timeLimitMillis;
+            CompactSolution previous = null;
+
+            for (int step = 0; step < bounds.size(); step++) {
+                int waveSizeLB = bounds.get(step)[0];
+                int waveSizeUB = bounds.get(step)[1];
+                long start = System.currentTimeMillis();
+
+                // Só limites e coeficientes mudam entre os passos
+                model.waveSizeConstraint().setBounds(Math.max(waveSizeLB, 1), waveSizeUB);
+                for (int a = 0; a < c.length; a++) {
+                    objective.setCoefficient(c[a], waveSizeUB);
+                }
+                boolean[] stepServable = new boolean[p.length];
+                for (int o = 0; o < p.length; o++) {
+                    stepServable[o] = servable[o] && instance.orderUnits(o) <= waveSizeUB;
+                    p[o].setUb(stepServable[o] ? 1 : 0);
+                }
+
+                WaveState state = new WaveState(instance, waveSizeLB, waveSizeUB);
+                Incumbent incumbent = new Incumbent(solution -> {
+                    state.load(solution);
+                    return state.isFeasible() ? state.ratio() : -1;
+                });
+                incumbent.offer(previous, "previous");
+                incumbent.offer(new GreedyHeuristic(instance, stepServable, waveSizeLB, waveSizeUB).run(), "greedy");
+                backend.setHint(incumbent.best() != null ? incumbent.best() : previous);
+
+                long slice = (deadline - start) / (bounds.size() - step);
+                backend.solve(slice, numThreads, incumbent);
+
+                // Cada linha vai polida para os seus proprios limites, como a wave do solveCompact
+                CompactSolution solved = incumbent.best();
+                CompactSolution polished = new WavePolisher(instance, stepServable, waveSizeLB, waveSizeUB)
+                        .polish(solved);
+                if (polished != solved) {
+                    incumbent.offer(polished, "polish");
+                }
+
+                CompactSolution best = incumbent.best();
+                rows.add(new Row(waveSizeLB, waveSizeUB, best, best == null ? 0.0 : incumbent.bestValue(),
+                        System.currentTimeMillis() - start));
+                if (best != null) {
+                    previous = best;
+                }
+            }
+        } finally {
+            backend.close();
+        }
+        return rows;
+    }
+
+    /*
+     * Formato "LB:UB,LB:UB,..."
+     */
+    static List<int[]> parseBounds(String text) {
+        List<int[]> bounds = new ArrayList<>();
+        for (String pair : text.split(",")) {
+            String[] parts = pair.split(":");
+            bounds.add(new int[] {Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())});
+        }
+        return bounds;
+    }
+}
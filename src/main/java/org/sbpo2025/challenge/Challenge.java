@@ -4,23 +4,44 @@ import org.apache.commons.lang3.time.StopWatch;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class Challenge {
+    // A partir deste tamanho o texto e lido pelo ParallelInstanceParser direto para CSR
+    static final long PARALLEL_PARSE_BYTES = 1 << 20;
 
     private List<Map<Integer, Integer>> orders;
     private List<Map<Integer, Integer>> aisles;
     private int nItems;
     private int waveSizeLB;
     private int waveSizeUB;
+    private SparseInstance instance;
+    private int parseThreads = ThreadBudget.availableProcessors();
+
+    /*
+     * Threads do leitor paralelo; 0 forca a leitura sequencial para listas de mapas
+     */
+    public void setParseThreads(int parseThreads) {
+        this.parseThreads = parseThreads;
+    }
 
     public void readInput(String inputFilePath) {
+        if (MappedInstance.isBinary(inputFilePath)) {
+            readBinaryInput(inputFilePath);
+            return;
+        }
+        if (parseThreads > 0 && new File(inputFilePath).length() >= PARALLEL_PARSE_BYTES) {
+            readParallelInput(inputFilePath);
+            return;
+        }
         try {
             BufferedReader reader = new BufferedReader(new FileReader(inputFilePath));
             String line = reader.readLine();
@@ -53,6 +74,77 @@ public class Challenge {
         }
     }
 
+    /*
+     * Instancia no formato binario: mapeada fora do heap, sem as listas de mapas
+     */
+    private void readBinaryInput(String inputFilePath) {
+        try {
+            MappedInstance mapped = MappedInstance.open(inputFilePath);
+            instance = mapped;
+            nItems = mapped.nItems();
+            waveSizeLB = mapped.waveSizeLB();
+            waveSizeUB = mapped.waveSizeUB();
+        } catch (IOException e) {
+            System.err.println("Error reading input from " + inputFilePath);
+            e.printStackTrace();
+        }
+    }
+
+    private void readParallelInput(String inputFilePath) {
+        try {
+            ParallelInstanceParser.Result result = new ParallelInstanceParser(parseThreads).parse(inputFilePath);
+            instance = result.instance();
+            nItems = instance.nItems();
+            waveSizeLB = result.waveSizeLB();
+            waveSizeUB = result.waveSizeUB();
+        } catch (IOException e) {
+            System.err.println("Error reading input from " + inputFilePath);
+            e.printStackTrace();
+        }
+    }
+
+    /*
+     * Compara a leitura sequencial (listas de mapas + SparseInstance) com a paralela
+     */
+    static void benchmarkParse(String inputFilePath, int parallelism, int repetitions) {
+        long sequential = Long.MAX_VALUE;
+        long parallel = Long.MAX_VALUE;
+        SparseInstance expected = null;
+        SparseInstance actual = null;
+        for (int r = 0; r < repetitions; r++) {
+            long start = System.nanoTime();
+            Challenge challenge = new Challenge();
+            challenge.setParseThreads(0);
+            challenge.readInput(inputFilePath);
+            expected = new SparseInstance(challenge.orders, challenge.aisles, challenge.nItems);
+            sequential = Math.min(sequential, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            try {
+                actual = new ParallelInstanceParser(parallelism).parse(inputFilePath).instance();
+            } catch (IOException e) {
+                System.err.println("Error reading input from " + inputFilePath);
+                e.printStackTrace();
+                return;
+            }
+            parallel = Math.min(parallel, System.nanoTime() - start);
+        }
+        System.out.printf("Parse sequential best of %d: %8.1f ms%n", repetitions, sequential / 1e6);
+        System.out.printf("Parse parallel   best of %d: %8.1f ms (%d threads)%n", repetitions, parallel / 1e6, parallelism);
+        System.out.println("Identical CSR: " + ParallelInstanceParser.sameContent(expected, actual));
+    }
+
+    public void writeBinaryInput(String outputFilePath) {
+        try {
+            MappedInstance.write(instance != null ? instance : new SparseInstance(orders, aisles, nItems),
+                    waveSizeLB, waveSizeUB, outputFilePath);
+            System.out.println("Binary instance written to " + outputFilePath);
+        } catch (IOException e) {
+            System.err.println("Error writing binary instance to " + outputFilePath);
+            e.printStackTrace();
+        }
+    }
+
     private void readItemQuantityPairs(BufferedReader reader, int nLines, List<Map<Integer, Integer>> orders) throws IOException {
         String line;
         for (int orderIndex = 0; orderIndex < nLines; orderIndex++) {
@@ -70,33 +162,104 @@ public class Challenge {
     }
 
     public void writeOutput(ChallengeSolution challengeSolution, String outputFilePath) {
+        writeOutput(challengeSolution == null ? null : CompactSolution.from(challengeSolution), outputFilePath);
+    }
+
+    public void writeOutput(CompactSolution challengeSolution, String outputFilePath) {
         if (challengeSolution == null) {
             System.err.println("Solution not found");
             return;
         }
+        try {
+            // Atomico: o checkpoint ja gravado continua la se a execucao morrer durante a escrita
+            CheckpointWriter.write(Paths.get(outputFilePath), challengeSolution);
+            System.out.println("Output written to " + outputFilePath);
+
+        } catch (IOException e) {
+            System.err.println("Error writing output to " + outputFilePath);
+            e.printStackTrace();
+        }
+    }
+
+    static void writeSolution(BufferedWriter writer, CompactSolution challengeSolution) throws IOException {
+        // Write the number of orders
+        writer.write(String.valueOf(challengeSolution.orderCount()));
+        writer.newLine();
+
+        // Write each order
+        for (int k = 0; k < challengeSolution.orderCount(); k++) {
+            writer.write(String.valueOf(challengeSolution.order(k)));
+            writer.newLine();
+        }
+
+        // Write the number of aisles
+        writer.write(String.valueOf(challengeSolution.aisleCount()));
+        writer.newLine();
+
+        // Write each aisle
+        for (int k = 0; k < challengeSolution.aisleCount(); k++) {
+            writer.write(String.valueOf(challengeSolution.aisle(k)));
+            writer.newLine();
+        }
+    }
+
+    public void writeOutput(WavePlan wavePlan, String outputFilePath) {
+        if (wavePlan == null || wavePlan.waves().isEmpty()) {
+            System.err.println("Wave plan not found");
+            return;
+        }
         try {
             BufferedWriter writer = new BufferedWriter(new FileWriter(outputFilePath));
-            var orders = challengeSolution.orders();
-            var aisles = challengeSolution.aisles();
 
-            // Write the number of orders
-            writer.write(String.valueOf(orders.size()));
+            // Write the number of waves, followed by each wave in the single-wave format
+            writer.write(String.valueOf(wavePlan.waves().size()));
             writer.newLine();
+            for (CompactSolution wave : wavePlan.waves()) {
+                writeSolution(writer, wave);
+            }
+
+            writer.close();
+            System.out.println("Output written to " + outputFilePath);
+
+        } catch (IOException e) {
+            System.err.println("Error writing output to " + outputFilePath);
+            e.printStackTrace();
+        }
+    }
 
-            // Write each order
-            for (int order : orders) {
-                writer.write(String.valueOf(order));
+    public void writeOutput(List<BoundSweep.Row> sweep, String outputFilePath) {
+        try {
+            BufferedWriter writer = new BufferedWriter(new FileWriter(outputFilePath));
+
+            // Write the number of bound pairs, then "LB UB objective" and the best wave for each pair
+            writer.write(String.valueOf(sweep.size()));
+            writer.newLine();
+            for (BoundSweep.Row row : sweep) {
+                writer.write(row.waveSizeLB() + " " + row.waveSizeUB() + " " + row.objective());
                 writer.newLine();
+                writeSolution(writer, row.wave() == null ? CompactSolution.of(new int[0], new int[0]) : row.wave());
             }
 
-            // Write the number of aisles
-            writer.write(String.valueOf(aisles.size()));
-            writer.newLine();
+            writer.close();
+            System.out.println("Output written to " + outputFilePath);
+
+        } catch (IOException e) {
+            System.err.println("Error writing output to " + outputFilePath);
+            e.printStackTrace();
+        }
+    }
 
-            // Write each aisle
-            for (int aisle : aisles) {
-                writer.write(String.valueOf(aisle));
+    public void writeFrontier(List<ParetoFrontier.Point> frontier, String outputFilePath) {
+        try {
+            BufferedWriter writer = new BufferedWriter(new FileWriter(outputFilePath));
+
+            // Write the number of frontier points, then "aisles units" and the wave for each point
+            writer.write(String.valueOf(frontier.size()));
+            writer.newLine();
+            for (ParetoFrontier.Point point : frontier) {
+                writer.write(point.aisles() + " " + point.units());
                 writer.newLine();
+                writeSolution(writer, point.wave());
             }
 
             writer.close();
@@ -108,21 +271,158 @@ public class Challenge {
         }
     }
 
+    ChallengeSolver newSolver(RunOptions options) {
+        var challengeSolver = instance != null
+                ? new ChallengeSolver(instance, waveSizeLB, waveSizeUB)
+                : new ChallengeSolver(orders, aisles, nItems, waveSizeLB, waveSizeUB);
+        configure(challengeSolver, options);
+        return challengeSolver;
+    }
+
+    void configure(ChallengeSolver challengeSolver, RunOptions options) {
+        challengeSolver.setBuildMode(options.buildMode);
+        challengeSolver.setVariableNames(options.variableNames);
+        challengeSolver.setBackend(options.backend);
+        challengeSolver.setCpSatParameters(options.cpSatParameters);
+        challengeSolver.setCuts(options.cuts);
+        challengeSolver.setSymmetry(options.symmetry);
+        challengeSolver.setReducedCostFixing(options.reducedCostFixing);
+        if (options.storePath != null) {
+            challengeSolver.setSolutionStore(new SolutionStore(options.storePath));
+        }
+        challengeSolver.setThreadBudget(options.threadBudget);
+        challengeSolver.setWorkers(options.workers);
+    }
+
+    /*
+     * --auto: features da instancia -> primeira regra que casa -> opcoes
+     */
+    private static void selectStrategy(ChallengeSolver challengeSolver, RunOptions options) {
+        long start = System.nanoTime();
+        InstanceFeatures features = InstanceFeatures.extract(challengeSolver.instance, challengeSolver.waveSizeUB);
+        System.out.printf("%s (%.1f ms)%n", features.describe(), (System.nanoTime() - start) / 1e6);
+        StrategyRules.Rule rule = StrategyRules.load(options.autoRules).select(features);
+        if (rule == null) {
+            System.out.println("Strategy: no rule matched, keeping the command-line options");
+            return;
+        }
+        System.out.println("Strategy: " + rule);
+        options.applyRule(rule.flags());
+        System.out.println(options.threadBudget.describe());
+    }
+
     public static void main(String[] args) {
         // Start the stopwatch to track the running time
         StopWatch stopWatch = StopWatch.createStarted();
 
-        if (args.length != 2) {
-            System.out.println("Usage: java -jar target/ChallengeSBPO2025-1.0.jar <inputFilePath> <outputFilePath>");
+        RunOptions options = RunOptions.parse(args);
+        if (options == null) {
+            return;
+        }
+        System.out.println(options.threadBudget.describe());
+        try {
+            run(options, stopWatch);
+        } finally {
+            // Relatorio da execucao: divisao das threads e utilizacao real de CPU
+            System.out.println(options.threadBudget.utilizationReport());
+        }
+    }
+
+    private static void run(RunOptions options, StopWatch stopWatch) {
+        if (options.benchmark) {
+            new BackendBenchmark(options).run();
             return;
         }
 
+        if (options.benchCuts) {
+            new CutBenchmark(options).run();
+            return;
+        }
+
+        if (options.benchSymmetry) {
+            new SymmetryBenchmark(options).run();
+            return;
+        }
+
+        if (options.benchKernels) {
+            new KernelBenchmark(options).run();
+            return;
+        }
+
+        if (options.calibrate != null) {
+            new StrategyCalibration(options).run();
+            return;
+        }
+
+        if (options.benchParse) {
+            benchmarkParse(options.inputPath, options.threadBudget.total(), 5);
+            return;
+        }
+
+        // Os nativos do OR-Tools carregam em paralelo com a leitura
+        if (!options.toBinary) {
+            NativeLibraries.preload();
+        }
         Challenge challenge = new Challenge();
-        challenge.readInput(args[0]);
-        var challengeSolver = new ChallengeSolver(
-                challenge.orders, challenge.aisles, challenge.nItems, challenge.waveSizeLB, challenge.waveSizeUB);
-        ChallengeSolution challengeSolution = challengeSolver.solve(stopWatch);
+        // O WavePlanner ainda trabalha sobre as listas de mapas
+        challenge.setParseThreads(options.multiWave ? 0 : options.threadBudget.total());
+        challenge.readInput(options.inputPath);
+        if (options.toBinary) {
+            challenge.writeBinaryInput(options.outputPath);
+            return;
+        }
+
+        if (options.multiWave) {
+            if (challenge.instance != null) {
+                System.err.println("--waves needs a text instance");
+                return;
+            }
+            var wavePlanner = new WavePlanner(challenge.orders, challenge.aisles, challenge.nItems,
+                    challenge.waveSizeLB, challenge.waveSizeUB, options.threadBudget.total());
+            WavePlan wavePlan = options.timeLimitMillis >= 0
+                    ? wavePlanner.plan(options.timeLimitMillis) : wavePlanner.plan(stopWatch);
+            System.out.println(wavePlan.summary());
+            challenge.writeOutput(wavePlan, options.outputPath);
+            return;
+        }
+
+        var challengeSolver = challenge.newSolver(options);
+        if (options.autoRules != null) {
+            selectStrategy(challengeSolver, options);
+            challenge.configure(challengeSolver, options);
+        }
+        if (options.benchBuild) {
+            challengeSolver.benchmarkModelBuild(3);
+            return;
+        }
+        if (options.sweepBounds != null) {
+            List<BoundSweep.Row> sweep = challengeSolver.sweep(options.sweepBounds, options.timeLimitMillis >= 0
+                    ? options.timeLimitMillis : (challengeSolver.getRemainingTime(stopWatch) - 5) * 1000);
+            for (BoundSweep.Row row : sweep) {
+                System.out.printf("LB=%d UB=%d objective=%.4f orders=%d aisles=%d time=%d ms%n",
+                        row.waveSizeLB(), row.waveSizeUB(), row.objective(),
+                        row.wave() == null ? 0 : row.wave().orderCount(),
+                        row.wave() == null ? 0 : row.wave().aisleCount(), row.elapsedMillis());
+            }
+            challenge.writeOutput(sweep, options.outputPath);
+            return;
+        }
+        if (options.frontier) {
+            List<ParetoFrontier.Point> frontier = challengeSolver.frontier(options.timeLimitMillis >= 0
+                    ? options.timeLimitMillis : (challengeSolver.getRemainingTime(stopWatch) - 5) * 1000);
+            for (ParetoFrontier.Point point : frontier) {
+                System.out.printf("aisles=%d units=%d ratio=%.4f%n",
+                        point.aisles(), point.units(), (double) point.units() / point.aisles());
+            }
+            challenge.writeFrontier(frontier, options.outputPath);
+            return;
+        }
+        CheckpointWriter checkpoint = new CheckpointWriter(options.outputPath);
+        challengeSolver.addIncumbentListener(checkpoint);
+        CompactSolution challengeSolution = challengeSolver.solveCompact(options.timeLimitMillis >= 0
+                ? options.timeLimitMillis : (challengeSolver.getRemainingTime(stopWatch) - 5) * 1000);
+        checkpoint.flush();
 
-        challenge.writeOutput(challengeSolution, args[1]);
+        challenge.writeOutput(challengeSolution, options.outputPath);
     }
 }
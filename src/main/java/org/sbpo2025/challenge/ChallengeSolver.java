@@ -4,20 +4,18 @@ import org.apache.commons.lang3.time.StopWatch;
 
 // import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
-import com.google.ortools.Loader;
-import com.google.ortools.linearsolver.MPConstraint;
-import com.google.ortools.linearsolver.MPObjective;
 import com.google.ortools.linearsolver.MPSolver;
-import com.google.ortools.linearsolver.MPVariable;
 
 public class ChallengeSolver {
-    private final long MAX_RUNTIME = 600000; // milliseconds; 10 minutes
+    static final long MAX_RUNTIME = 600000; // milliseconds; 10 minutes
+    static final long SUBSOLVER_MILLIS = 2000;
+    static final int FIXING_TIME_SHARE = 10;
 
     protected List<Map<Integer, Integer>> orders;
     protected List<Map<Integer, Integer>> aisles;
@@ -25,11 +23,23 @@ public class ChallengeSolver {
     protected int waveSizeLB;
     protected int waveSizeUB;
     
-    private int nOrders;
-    private int nAisles;
-    private long[] nItemsPerOrder;
-
-    static { Loader.loadNativeLibraries(); }
+    private ThreadBudget threadBudget = ThreadBudget.split(ThreadBudget.availableProcessors());
+    private int numThreads = threadBudget.mipThreads();
+    private WaveModel.BuildMode buildMode = WaveModel.BuildMode.DIRECT;
+    private boolean variableNames = false;
+    private String backendName = SolverBackends.DEFAULT;
+    private String cpSatParameters = "";
+    private boolean cuts = false;
+    private boolean symmetry = false;
+    private boolean reducedCostFixing = false;
+    private SolutionStore solutionStore;
+    private String workers = SearchWorkers.DEFAULT;
+    private final List<Incumbent.Listener> incumbentListeners = new ArrayList<>();
+
+    protected SparseInstance instance;
+    protected ItemCoverage coverage;
+    private AisleCover aisleCover;
+    private AisleSymmetry aisleSymmetry;
 
     public ChallengeSolver(
             List<Map<Integer, Integer>> orders, List<Map<Integer, Integer>> aisles, int nItems, int waveSizeLB, int waveSizeUB) {
@@ -38,130 +48,367 @@ public class ChallengeSolver {
         this.nItems = nItems;
         this.waveSizeLB = waveSizeLB;
         this.waveSizeUB = waveSizeUB;
+        this.instance = new SparseInstance(orders, aisles, nItems);
+        this.coverage = new ItemCoverage(instance);
     }
 
-    protected void getItemsPerOrder(List<Map<Integer, Integer>> orders) {
-        this.nItemsPerOrder = new long[this.nOrders];
-        
-        for (int i = 0; i < this.nOrders; i++) {
-            Map<Integer, Integer> order = orders.get(i);
-            long totalItems = 0;
-            
-            for (int quantity : order.values()) {
-                totalItems += quantity;
-            }
-            
-            this.nItemsPerOrder[i] = totalItems;
-        }
+    /*
+     * Direto de uma instancia CSR (por exemplo mapeada fora do heap): as listas de mapas
+     * ficam nulas e tudo le pelos acessores de SparseInstance
+     */
+    public ChallengeSolver(SparseInstance instance, int waveSizeLB, int waveSizeUB) {
+        this.nItems = instance.nItems();
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+        this.instance = instance;
+        this.coverage = new ItemCoverage(instance);
     }
 
-    public ChallengeSolution solve(StopWatch stopWatch) {
-        MPSolver solver = MPSolver.createSolver("SAT");
-        
-        if (solver == null)
-            return null;
+    public void setNumThreads(int numThreads) {
+        this.numThreads = Math.max(numThreads, 1);
+    }
 
-        this.nOrders = orders.size(); // Numero de pedidos
-        this.nAisles = aisles.size(); // Numero de corredores
-        
-        getItemsPerOrder(orders);
+    /*
+     * O backend MIP usa as threads reservadas para ele; os modos com varios workers
+     * (fronteira) dividem o mesmo orcamento entre os workers
+     */
+    public void setThreadBudget(ThreadBudget threadBudget) {
+        this.threadBudget = threadBudget;
+        this.numThreads = threadBudget.mipThreads();
+    }
 
-        // Criação das boolenas de corredores(c) e pedidos(p)
-        MPVariable[] p = new MPVariable[nOrders];
-        MPVariable[] c = new MPVariable[nAisles];
+    public void setBuildMode(WaveModel.BuildMode buildMode) {
+        this.buildMode = buildMode;
+    }
 
-        for (int i = 0; i < nOrders; i++) {
-            p[i] = solver.makeBoolVar("p_" + i);
-        }
-        for (int i = 0; i < nAisles; i++) {
-            c[i] = solver.makeBoolVar("c_" + i);
+    public void setVariableNames(boolean variableNames) {
+        this.variableNames = variableNames;
+    }
+
+    public void setBackend(String backendName) {
+        this.backendName = backendName;
+    }
+
+    public void setCpSatParameters(String cpSatParameters) {
+        this.cpSatParameters = cpSatParameters;
+    }
+
+    public void setCuts(boolean cuts) {
+        this.cuts = cuts;
+    }
+
+    public void setSymmetry(boolean symmetry) {
+        this.symmetry = symmetry;
+    }
+
+    public void setReducedCostFixing(boolean reducedCostFixing) {
+        this.reducedCostFixing = reducedCostFixing;
+    }
+
+    /*
+     * Banco de waves entre execucoes: carregado no inicio do solve, gravado no fim
+     */
+    public void setSolutionStore(SolutionStore solutionStore) {
+        this.solutionStore = solutionStore;
+    }
+
+    public void setWorkers(String workers) {
+        this.workers = workers;
+    }
+
+    public void addIncumbentListener(Incumbent.Listener listener) {
+        incumbentListeners.add(listener);
+    }
+
+    /*
+     * Presolve: marca os pedidos que algum conjunto de corredores consegue atender.
+     * A triagem por bitset descarta a maioria e so quem passa vai para a checagem exata.
+     */
+    protected boolean[] findServableOrders() {
+        return findServableOrders(instance, coverage, waveSizeUB);
+    }
+
+    static boolean[] findServableOrders(SparseInstance instance, ItemCoverage coverage, int waveSizeUB) {
+        long[] mask = coverage.newMask();
+        int[] totalStock = new int[instance.nItems()];
+        for (int a = 0; a < instance.nAisles(); a++) {
+            coverage.addAisle(mask, a);
+            for (int k = instance.aisleBegin(a); k < instance.aisleEnd(a); k++) {
+                totalStock[instance.aisleItem(k)] += instance.aisleQuantity(k);
+            }
         }
 
-        // Restrição de tamanho da wave (LB e UB)
-        MPConstraint itemsBound = solver.makeConstraint(Math.max(waveSizeLB, 1), waveSizeUB, "waveSize");
-        for (int i = 0; i < nOrders; i++) {
-            itemsBound.setCoefficient(p[i], nItemsPerOrder[i]);
+        boolean[] servable = new boolean[instance.nOrders()];
+        for (int o = 0; o < instance.nOrders(); o++) {
+            if (instance.orderUnits(o) > waveSizeUB || !coverage.covers(mask, o)) {
+                continue;
+            }
+            servable[o] = instance.orderMinSlack(totalStock, o) >= 0;
         }
+        return servable;
+    }
+
+    public ChallengeSolution solve(StopWatch stopWatch) {
+        //  Indica o limite de tempo
+        long remainingTime = getRemainingTime(stopWatch) - 5;
+        return solve(remainingTime * 1000);
+    }
+
+    /*
+     * Resolve uma unica wave com limite de tempo em milissegundos
+     */
+    public ChallengeSolution solve(long timeLimitMillis) {
+        CompactSolution solution = solveCompact(timeLimitMillis);
+        return solution == null ? null : solution.toChallengeSolution();
+    }
 
-        // Restrições de disponibilidade de itens
-        for (int itemId = 0; itemId < nItems; itemId++) {
-            MPConstraint itemConstraint = solver.makeConstraint(
-                Double.NEGATIVE_INFINITY, 0, "item_" + itemId);
-            
-            for (int orderIdx = 0; orderIdx < nOrders; orderIdx++) {
-                int quantity = orders.get(orderIdx).getOrDefault(itemId, 0);
-                if (quantity > 0) {
-                    itemConstraint.setCoefficient(p[orderIdx], quantity);
+    public CompactSolution solveCompact(long timeLimitMillis) {
+        long deadline = System.currentTimeMillis() + Math.max(timeLimitMillis, 0);
+        boolean[] servable = findServableOrders();
+        Incumbent incumbent = newIncumbent();
+
+        // A heuristica gulosa da o primeiro incumbente e o hint do backend
+        incumbent.offer(new GreedyHeuristic(instance, servable, waveSizeLB, waveSizeUB).run(), "greedy");
+
+        // Waves de execucoes anteriores (reparadas) competem com a gulosa; toda melhora
+        // desta execucao entra na lista que volta para o banco
+        SolutionStore.Key storeKey = null;
+        List<CompactSolution> found = new ArrayList<>();
+        if (solutionStore != null) {
+            storeKey = SolutionStore.key(instance, waveSizeLB, waveSizeUB);
+            OrderPacking packing = new OrderPacking(instance, servable, waveSizeLB, waveSizeUB);
+            for (CompactSolution stored : solutionStore.load(storeKey)) {
+                CompactSolution repaired = repair(stored, packing);
+                if (repaired != null) {
+                    found.add(repaired);
+                    incumbent.offer(repaired, "store");
                 }
             }
-            for (int aisleIdx = 0; aisleIdx < nAisles; aisleIdx++) {
-                int quantity = aisles.get(aisleIdx).getOrDefault(itemId, 0);
-                if (quantity > 0) {
-                    itemConstraint.setCoefficient(c[aisleIdx], -quantity);
+            if (incumbent.best() != null) {
+                found.add(incumbent.best());
+            }
+            incumbent.addListener((solution, value, source) -> {
+                synchronized (found) {
+                    found.add(solution);
                 }
+            });
+        }
+
+        // Uma fatia curta no fim fica para os subproblemas exatos sobre a melhor wave
+        long subsolverMillis = Math.min(SUBSOLVER_MILLIS, timeLimitMillis / 25);
+
+        ReducedCostFixing fixing = null;
+        SolverBackend backend = SolverBackends.create(backendName, buildMode, variableNames, cpSatParameters, cuts,
+                symmetry);
+        try {
+            long buildStart = System.nanoTime();
+            backend.buildModel(instance, servable, waveSizeLB, waveSizeUB);
+            System.out.printf("Model built (%s, %s) in %d ms%n",
+                    backend.name(), buildMode, (System.nanoTime() - buildStart) / 1_000_000);
+
+            // Workers heuristicos (busca tabu, ...) em paralelo ou, sem threads livres, antes do backend
+            SolvePipeline pipeline = SearchWorkers.pipeline(workers, instance, servable, waveSizeLB, waveSizeUB,
+                    threadBudget.heuristicThreads());
+            pipeline.start(deadline - System.currentTimeMillis(), incumbent);
+            try {
+                if (reducedCostFixing) {
+                    fixing = newFixing(servable, incumbent, Math.max(timeLimitMillis / FIXING_TIME_SHARE, 1));
+                    backend.fixVariables(fixing);
+                }
+                backend.setHint(incumbent.best());
+                CompactSolution solution = backend.solve(deadline - subsolverMillis - System.currentTimeMillis(),
+                        numThreads, incumbent);
+                if (solution != null && !isSolutionFeasible(solution)) {
+                    System.out.println("Solution is not feasible");
+                }
+            } finally {
+                pipeline.finish();
             }
+        } finally {
+            backend.close();
         }
 
-        // Objetivo
-        // Min (UB*(total de corredores acessado) - (total de itens selecionados))
-        
-        MPObjective objective = solver.objective();
+        CompactSolution challengeSolution = incumbent.best();
+        if (challengeSolution == null) {
+            return null;
+        }
+        // O polimento considera todos os pedidos serviveis, mesmo os fixados fora pelo LP
+        WavePolisher polisher = new WavePolisher(instance, servable, waveSizeLB, waveSizeUB);
+        if (fixing != null) {
+            System.out.println(fixing.describe());
+            servable = fixing.restrictServable(servable);
+        }
+        refineWithSubsolvers(incumbent, servable, deadline);
+
+        // Polimento da melhor wave antes da saida
+        long polishStart = System.nanoTime();
+        CompactSolution polished = polisher.polish(incumbent.best());
+        System.out.printf("%s in %.1f ms%n", polisher.describe(), (System.nanoTime() - polishStart) / 1e6);
+        if (polished != incumbent.best()) {
+            incumbent.offer(polished, "polish");
+        }
+        challengeSolution = incumbent.best();
+        System.out.println("Objective function value: " + computeObjectiveFunction(challengeSolution));
+        System.out.println(incumbent.pool().describe());
+        if (solutionStore != null) {
+            synchronized (found) {
+                solutionStore.save(storeKey, bestDistinct(found));
+            }
+        }
+        return challengeSolution;
+    }
 
-        for (int i = 0; i < nAisles; i++) {
-            objective.setCoefficient(c[i], waveSizeUB);
+    /*
+     * Wave guardada contra o estoque e os limites atuais: como esta, se ainda for viavel;
+     * senao os corredores guardados (os que ainda existem) com os pedidos reempacotados
+     */
+    private CompactSolution repair(CompactSolution stored, OrderPacking packing) {
+        int[] aisles = new int[stored.aisleCount()];
+        int nAisles = 0;
+        long[] aisleSet = OrderPacking.newAisleSet(instance.nAisles());
+        for (int k = 0; k < stored.aisleCount(); k++) {
+            if (stored.aisle(k) < instance.nAisles()) {
+                aisles[nAisles++] = stored.aisle(k);
+                OrderPacking.addAisle(aisleSet, stored.aisle(k));
+            }
+        }
+        if (nAisles == 0) {
+            return null;
+        }
+        boolean inRange = nAisles == stored.aisleCount();
+        for (int k = 0; k < stored.orderCount() && inRange; k++) {
+            inRange = stored.order(k) < instance.nOrders();
         }
+        if (inRange && isSolutionFeasible(stored)) {
+            return stored;
+        }
+        int[] orders = new int[instance.nOrders()];
+        int nOrders = packing.pack(aisleSet, orders);
+        if (packing.units() < waveSizeLB || nOrders == 0) {
+            return null;
+        }
+        return CompactSolution.of(Arrays.copyOf(orders, nOrders), Arrays.copyOf(aisles, nAisles));
+    }
 
-        for (int orderIdx = 0; orderIdx < nOrders; orderIdx++) {
-            long totalItemsInOrder = 0;
-            for (int quantity : orders.get(orderIdx).values()) {
-                totalItemsInOrder += quantity;
+    /*
+     * As melhores waves viaveis e distintas, da melhor para a pior
+     */
+    private List<CompactSolution> bestDistinct(List<CompactSolution> waves) {
+        List<CompactSolution> distinct = new ArrayList<>();
+        for (CompactSolution wave : waves) {
+            if (!distinct.contains(wave) && isSolutionFeasible(wave)) {
+                distinct.add(wave);
             }
-            objective.setCoefficient(p[orderIdx], -totalItemsInOrder);
         }
+        distinct.sort((a, b) -> Double.compare(computeObjectiveFunction(b), computeObjectiveFunction(a)));
+        return distinct.subList(0, Math.min(distinct.size(), SolutionStore.MAX_WAVES));
+    }
 
-        objective.setMinimization();
+    /*
+     * LP na razao do incumbente, fixacoes iniciais e, a cada melhora do incumbente, novas
+     * fixacoes pelo mesmo LP
+     */
+    private ReducedCostFixing newFixing(boolean[] servable, Incumbent incumbent, long timeLimitMillis) {
+        ReducedCostFixing fixing = new ReducedCostFixing(instance, servable, waveSizeLB, waveSizeUB);
+        long start = System.currentTimeMillis();
+        if (!fixing.solveRelaxation(timeLimitMillis, incumbent.bestValue())) {
+            System.out.println("Reduced-cost fixing: LP not solved in " + timeLimitMillis + " ms");
+            return fixing;
+        }
+        fixing.update(incumbent.bestValue());
+        incumbent.addListener((solution, value, source) -> fixing.update(value));
+        System.out.println(fixing.describe() + " in " + (System.currentTimeMillis() - start) + " ms");
+        return fixing;
+    }
 
-        //  Indica o limite de tempo
-        long remainingTime = getRemainingTime(stopWatch) - 5;
-        solver.setTimeLimit(remainingTime * 1000); // millisegundos
-        
-        // Habilita o uso de múltiplos threads
-        solver.setNumThreads(8); // Ajustar para a maquina em que vais rodar (oficial é 8)
-
-        // Solve
-        MPSolver.ResultStatus status = solver.solve();
-
-        // Extraindo a solução
-        if (status == MPSolver.ResultStatus.OPTIMAL || status == MPSolver.ResultStatus.FEASIBLE) {
-            System.out.println("Solver found a solution: " + status);
-
-            Set<Integer> selectedOrders = new HashSet<>();
-            Set<Integer> accessedAisles = new HashSet<>();
-            
-            for (int i = 0; i < p.length; i++) {
-                if (p[i].solutionValue() == 1.0) {
-                    selectedOrders.add(i);
-                }
+    /*
+     * Cobertura exata dos corredores da melhor wave (metade da fatia) e, com esses
+     * corredores, empacotamento exato dos pedidos (o resto)
+     */
+    private void refineWithSubsolvers(Incumbent incumbent, boolean[] servable, long deadline) {
+        long half = Math.max((deadline - System.currentTimeMillis()) / 2, 1);
+        synchronized (aisleCover) {
+            incumbent.offer(aisleCover.shrinkExact(incumbent.best(), half), "cover");
+        }
+
+        CompactSolution best = incumbent.best();
+        OrderPacking packing = new OrderPacking(instance, servable, waveSizeLB, waveSizeUB);
+        int[] packed = new int[instance.nOrders()];
+        int nPacked = packing.packExact(OrderPacking.aisleSet(best, instance.nAisles()), packed,
+                Math.max(deadline - System.currentTimeMillis(), 1));
+        if (packing.units() >= waveSizeLB) {
+            incumbent.offer(CompactSolution.of(Arrays.copyOf(packed, nPacked), best.aisles()), "packing");
+        }
+    }
+
+    /*
+     * Melhor wave para cada par (LB, UB), reaproveitando um unico modelo MPSolver
+     */
+    public List<BoundSweep.Row> sweep(List<int[]> bounds, long timeLimitMillis) {
+        String solverId = List.of("sat", "scip", "cbc").contains(backendName) ? backendName.toUpperCase() : "SAT";
+        return new BoundSweep(instance, coverage, solverId, numThreads).run(bounds, timeLimitMillis);
+    }
+
+    /*
+     * Fronteira corredores x unidades, em paralelo entre os orcamentos de corredores
+     */
+    public List<ParetoFrontier.Point> frontier(long timeLimitMillis) {
+        String solverId = List.of("sat", "scip", "cbc").contains(backendName) ? backendName.toUpperCase() : "SAT";
+        return new ParetoFrontier(instance, findServableOrders(), waveSizeLB, waveSizeUB, solverId,
+                threadBudget.mipThreads())
+                .run(timeLimitMillis);
+    }
+
+    /*
+     * Incumbente que so aceita solucoes verificadas, avaliadas pela funcao objetivo
+     */
+    protected Incumbent newIncumbent() {
+        Incumbent incumbent = new Incumbent(
+                solution -> isSolutionFeasible(solution) ? computeObjectiveFunction(solution) : -1);
+        for (Incumbent.Listener listener : incumbentListeners) {
+            incumbent.addListener(listener);
+        }
+
+        // Toda wave oferecida fica com a cobertura gulosa de corredores, se ela usar menos
+        if (aisleCover == null) {
+            aisleCover = new AisleCover(instance);
+        }
+        // e em forma canonica: corredores equivalentes/dominados trocados pelo representante
+        if (aisleSymmetry == null) {
+            aisleSymmetry = new AisleSymmetry(instance, findServableOrders());
+        }
+        AisleCover cover = aisleCover;
+        AisleSymmetry symmetry = aisleSymmetry;
+        // Conjunto elite para o path relinking
+        incumbent.setPool(new ElitePool(instance.nAisles()));
+        incumbent.setImprover(solution -> {
+            synchronized (cover) {
+                return symmetry.canonicalize(cover.shrink(solution));
             }
-            for (int i = 0; i < c.length; i++) {
-                if (c[i].solutionValue() == 1.0) {
-                    accessedAisles.add(i);
+        });
+        return incumbent;
+    }
+
+    /*
+     * Mede o tempo de construcao do modelo nos dois caminhos, sem resolver
+     */
+    public void benchmarkModelBuild(int repetitions) {
+        NativeLibraries.ensureLoaded();
+        boolean[] servable = findServableOrders();
+        for (WaveModel.BuildMode mode : WaveModel.BuildMode.values()) {
+            for (boolean names : new boolean[] {true, false}) {
+                long best = Long.MAX_VALUE;
+                for (int r = 0; r < repetitions; r++) {
+                    MPSolver solver = MPSolver.createSolver("SAT");
+                    long start = System.nanoTime();
+                    WaveModel.build(solver, instance, servable, waveSizeLB, waveSizeUB, mode, names);
+                    best = Math.min(best, System.nanoTime() - start);
+                    solver.delete();
                 }
+                System.out.printf("Build %-6s names=%-5b best of %d: %8.1f ms%n",
+                        mode, names, repetitions, best / 1e6);
             }
-            
-            ChallengeSolution challengeSolution = new ChallengeSolution(selectedOrders, accessedAisles);
-            
-            if (!isSolutionFeasible(challengeSolution)) {
-                System.out.println("Solution is not feasible");
-                return null;
-            }
-            
-            System.out.println("Objective function value: " + computeObjectiveFunction(challengeSolution));
-
-            return challengeSolution;
         }
-
-        return null;
     }
 
     /*
@@ -176,60 +423,69 @@ public class ChallengeSolver {
     protected boolean isSolutionFeasible(ChallengeSolution challengeSolution) {
         Set<Integer> selectedOrders = challengeSolution.orders();
         Set<Integer> visitedAisles = challengeSolution.aisles();
-        if (selectedOrders == null || visitedAisles == null || selectedOrders.isEmpty() || visitedAisles.isEmpty()) {
+        if (selectedOrders == null || visitedAisles == null) {
+            return false;
+        }
+        return isSolutionFeasible(CompactSolution.from(challengeSolution));
+    }
+
+    protected boolean isSolutionFeasible(CompactSolution challengeSolution) {
+        if (challengeSolution.isEmpty()) {
             return false;
         }
 
         int[] totalUnitsPicked = new int[nItems];
         int[] totalUnitsAvailable = new int[nItems];
+        long totalUnits = 0;
 
         // Calculate total units picked
-        for (int order : selectedOrders) {
-            for (Map.Entry<Integer, Integer> entry : orders.get(order).entrySet()) {
-                totalUnitsPicked[entry.getKey()] += entry.getValue();
+        for (int j = 0; j < challengeSolution.orderCount(); j++) {
+            int order = challengeSolution.order(j);
+            for (int k = instance.orderBegin(order); k < instance.orderEnd(order); k++) {
+                totalUnitsPicked[instance.orderItem(k)] += instance.orderQuantity(k);
             }
+            totalUnits += instance.orderUnits(order);
         }
 
         // Calculate total units available
-        for (int aisle : visitedAisles) {
-            for (Map.Entry<Integer, Integer> entry : aisles.get(aisle).entrySet()) {
-                totalUnitsAvailable[entry.getKey()] += entry.getValue();
+        for (int j = 0; j < challengeSolution.aisleCount(); j++) {
+            int aisle = challengeSolution.aisle(j);
+            for (int k = instance.aisleBegin(aisle); k < instance.aisleEnd(aisle); k++) {
+                totalUnitsAvailable[instance.aisleItem(k)] += instance.aisleQuantity(k);
             }
         }
 
         // Check if the total units picked are within bounds
-        int totalUnits = Arrays.stream(totalUnitsPicked).sum();
         if (totalUnits < waveSizeLB || totalUnits > waveSizeUB) {
             return false;
         }
 
         // Check if the units picked do not exceed the units available
-        for (int i = 0; i < nItems; i++) {
-            if (totalUnitsPicked[i] > totalUnitsAvailable[i]) {
-                return false;
-            }
-        }
-
-        return true;
+        return !ItemKernels.anyGreater(totalUnitsPicked, totalUnitsAvailable, nItems);
     }
 
     protected double computeObjectiveFunction(ChallengeSolution challengeSolution) {
         Set<Integer> selectedOrders = challengeSolution.orders();
         Set<Integer> visitedAisles = challengeSolution.aisles();
-        if (selectedOrders == null || visitedAisles == null || selectedOrders.isEmpty() || visitedAisles.isEmpty()) {
+        if (selectedOrders == null || visitedAisles == null) {
+            return 0.0;
+        }
+        return computeObjectiveFunction(CompactSolution.from(challengeSolution));
+    }
+
+    protected double computeObjectiveFunction(CompactSolution challengeSolution) {
+        if (challengeSolution.isEmpty()) {
             return 0.0;
         }
-        int totalUnitsPicked = 0;
+        long totalUnitsPicked = 0;
 
         // Calculate total units picked
-        for (int order : selectedOrders) {
-            totalUnitsPicked += orders.get(order).values().stream()
-                    .mapToInt(Integer::intValue)
-                    .sum();
+        for (int j = 0; j < challengeSolution.orderCount(); j++) {
+            totalUnitsPicked += instance.orderUnits(challengeSolution.order(j));
         }
 
         // Calculate the number of visited aisles
-        int numVisitedAisles = visitedAisles.size();
+        int numVisitedAisles = challengeSolution.aisleCount();
 
         // Objective function: total units picked / number of visited aisles
         return (double) totalUnitsPicked / numVisitedAisles;
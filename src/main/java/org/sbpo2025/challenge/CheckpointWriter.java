@@ -0,0 +1,97 @@
+package org.sbpo2025.challenge;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/*
+ * Grava no arquivo de saida cada melhoria do incumbente, para que uma execucao
+ * interrompida (timeout, kill) ainda deixe a melhor wave no disco. A escrita vai para um
+ * arquivo temporario e depois e movida atomicamente sobre o destino.
+ * No maximo uma escrita a cada MIN_INTERVAL_MILLIS: a melhoria que chega antes fica
+ * pendente e e gravada quando o intervalo acaba (ou no flush do fim da execucao). Os
+ * listeners sao chamados fora do lock do Incumbent, entao as melhorias podem chegar fora
+ * de ordem; uma wave pior que a ja gravada e descartada.
+ */
+public class CheckpointWriter implements Incumbent.Listener {
+    private static final long MIN_INTERVAL_MILLIS = 200;
+
+    private final Path target;
+    private long lastWrite = 0;
+    private double writtenValue = Double.NEGATIVE_INFINITY;
+    private CompactSolution pending;
+    private double pendingValue = Double.NEGATIVE_INFINITY;
+    private Timer timer;
+
+    public CheckpointWriter(String outputFilePath) {
+        this.target = Paths.get(outputFilePath).toAbsolutePath();
+    }
+
+    @Override
+    public synchronized void onImprovement(CompactSolution solution, double value, String source) {
+        System.out.printf("New incumbent from %s: %.4f%n", source, value);
+        if (value <= writtenValue || value <= pendingValue) {
+            return;
+        }
+        pending = solution;
+        pendingValue = value;
+        long wait = lastWrite + MIN_INTERVAL_MILLIS - System.currentTimeMillis();
+        if (wait <= 0) {
+            flush();
+        } else if (timer == null) {
+            timer = new Timer("checkpoint", true);
+            timer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            }, wait);
+        }
+    }
+
+    /*
+     * Grava a wave pendente, se houver; chamado tambem no fim da execucao
+     */
+    public synchronized void flush() {
+        if (timer != null) {
+            timer.cancel();
+            timer = null;
+        }
+        if (pending == null) {
+            return;
+        }
+        CompactSolution solution = pending;
+        writtenValue = pendingValue;
+        pending = null;
+        pendingValue = Double.NEGATIVE_INFINITY;
+        lastWrite = System.currentTimeMillis();
+        try {
+            write(target, solution);
+        } catch (IOException e) {
+            System.err.println("Error writing checkpoint to " + target);
+            e.printStackTrace();
+        }
+    }
+
+    /*
+     * Escreve a wave num temporario ao lado do destino e move atomicamente: quem le (ou um
+     * kill no meio) ve a wave anterior ou a nova, nunca um arquivo truncado. Cada chamada tem
+     * o seu temporario, entao a escrita final nao disputa com um checkpoint atrasado
+     */
+    static void write(Path target, CompactSolution solution) throws IOException {
+        Path temporary = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName() + ".", ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary)) {
+                Challenge.writeSolution(writer, solution);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
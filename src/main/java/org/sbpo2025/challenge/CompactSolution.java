@@ -0,0 +1,179 @@
+package org.sbpo2025.challenge;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/*
+ * Solucao com pedidos e corredores em int[] ordenados e sem repeticao. Copia, equals e
+ * hashCode sao operacoes sobre arrays primitivos, sem boxing. ChallengeSolution continua
+ * sendo o tipo da API do desafio; from/toChallengeSolution fazem a ponte.
+ */
+public final class CompactSolution {
+    private final int[] orders;
+    private final int[] aisles;
+    private final int hash;
+
+    private CompactSolution(int[] sortedOrders, int[] sortedAisles) {
+        this.orders = sortedOrders;
+        this.aisles = sortedAisles;
+        this.hash = 31 * Arrays.hashCode(sortedOrders) + Arrays.hashCode(sortedAisles);
+    }
+
+    public static CompactSolution of(int[] orders, int[] aisles) {
+        return new CompactSolution(sortedDistinct(orders), sortedDistinct(aisles));
+    }
+
+    public static CompactSolution from(ChallengeSolution challengeSolution) {
+        return new CompactSolution(toSortedArray(challengeSolution.orders()), toSortedArray(challengeSolution.aisles()));
+    }
+
+    private static int[] sortedDistinct(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int n = 0;
+        for (int k = 0; k < sorted.length; k++) {
+            if (n == 0 || sorted[n - 1] != sorted[k]) {
+                sorted[n++] = sorted[k];
+            }
+        }
+        return n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+    }
+
+    private static int[] toSortedArray(Set<Integer> values) {
+        int[] array = new int[values.size()];
+        int k = 0;
+        for (int value : values) {
+            array[k++] = value;
+        }
+        Arrays.sort(array);
+        return array;
+    }
+
+    public ChallengeSolution toChallengeSolution() {
+        Set<Integer> orderSet = new HashSet<>(orders.length * 2);
+        for (int order : orders) {
+            orderSet.add(order);
+        }
+        Set<Integer> aisleSet = new HashSet<>(aisles.length * 2);
+        for (int aisle : aisles) {
+            aisleSet.add(aisle);
+        }
+        return new ChallengeSolution(orderSet, aisleSet);
+    }
+
+    public int orderCount() {
+        return orders.length;
+    }
+
+    public int order(int k) {
+        return orders[k];
+    }
+
+    public int aisleCount() {
+        return aisles.length;
+    }
+
+    public int aisle(int k) {
+        return aisles[k];
+    }
+
+    public int[] orders() {
+        return orders.clone();
+    }
+
+    public int[] aisles() {
+        return aisles.clone();
+    }
+
+    public boolean containsOrder(int order) {
+        return Arrays.binarySearch(orders, order) >= 0;
+    }
+
+    public boolean containsAisle(int aisle) {
+        return Arrays.binarySearch(aisles, aisle) >= 0;
+    }
+
+    public boolean isEmpty() {
+        return orders.length == 0 || aisles.length == 0;
+    }
+
+    /*
+     * Serializacao compacta: contagem seguida dos deltas entre ids ordenados, em varint
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(orders.length + aisles.length + 8);
+        writeSorted(out, orders);
+        writeSorted(out, aisles);
+        return out.toByteArray();
+    }
+
+    public static CompactSolution fromBytes(byte[] bytes) {
+        int[] position = {0};
+        int[] orders = readSorted(bytes, position);
+        int[] aisles = readSorted(bytes, position);
+        return new CompactSolution(orders, aisles);
+    }
+
+    private static void writeSorted(ByteArrayOutputStream out, int[] values) {
+        writeVarInt(out, values.length);
+        int previous = 0;
+        for (int value : values) {
+            writeVarInt(out, value - previous);
+            previous = value;
+        }
+    }
+
+    private static int[] readSorted(byte[] bytes, int[] position) {
+        int[] values = new int[readVarInt(bytes, position)];
+        int previous = 0;
+        for (int k = 0; k < values.length; k++) {
+            previous += readVarInt(bytes, position);
+            values[k] = previous;
+        }
+        return values;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(byte[] bytes, int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CompactSolution)) {
+            return false;
+        }
+        CompactSolution that = (CompactSolution) other;
+        return hash == that.hash && Arrays.equals(orders, that.orders) && Arrays.equals(aisles, that.aisles);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactSolution[orders=" + Arrays.toString(orders) + ", aisles=" + Arrays.toString(aisles) + "]";
+    }
+}
@@ -0,0 +1,193 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import com.google.ortools.sat.BoolVar;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpSolver;
+import com.google.ortools.sat.CpSolverSolutionCallback;
+import com.google.ortools.sat.CpSolverStatus;
+import com.google.ortools.sat.IntVar;
+import com.google.ortools.sat.LinearExpr;
+import com.google.ortools.sat.LinearExprBuilder;
+import com.google.protobuf.TextFormat;
+
+/*
+ * Backend CP-SAT nativo (CpModel), sem passar pelo wrapper do MPSolver. Os coeficientes
+ * ja sao inteiros; a razao e modelada com a contagem de corredores A = sum c_a e uma
+ * razao escalada R (R/scale unidades por corredor):
+ *   R * A <= scale * sum units_o p_o,   max R
+ * R e a razao arredondada para baixo. Duas razoes distintas u/A e u'/A' diferem de pelo
+ * menos 1/(A A'); numa wave otima todo corredor contribui com alguma unidade, entao A <=
+ * min(corredores, UB), e com scale = corredores * min(corredores, UB) o arredondamento nao
+ * muda qual wave e otima: OPTIMAL do CP-SAT e o otimo da razao.
+ * Cada solucao melhor que o solver encontra vai direto para o Incumbent pelo callback.
+ */
+public class CpSatBackend implements SolverBackend {
+    private final String extraParameters;
+    private SparseInstance instance;
+    private CpModel model;
+    private BoolVar[] p;
+    private BoolVar[] c;
+    private IntVar aisleCount;
+    private IntVar ratio;
+    private long scale;
+
+    public CpSatBackend(String extraParameters) {
+        this.extraParameters = extraParameters;
+    }
+
+    @Override
+    public String name() {
+        return "cpsat";
+    }
+
+    @Override
+    public void buildModel(SparseInstance instance, boolean[] servable, int waveSizeLB, int waveSizeUB) {
+        NativeLibraries.ensureLoaded();
+        this.instance = instance;
+        int nOrders = instance.nOrders();
+        int nAisles = instance.nAisles();
+        model = new CpModel();
+
+        p = new BoolVar[nOrders];
+        c = new BoolVar[nAisles];
+        LinearExprBuilder units = LinearExpr.newBuilder();
+        for (int o = 0; o < nOrders; o++) {
+            p[o] = model.newBoolVar("");
+            if (servable[o]) {
+                units.addTerm(p[o], instance.orderUnits(o));
+            } else {
+                model.addEquality(p[o], 0);
+            }
+        }
+        for (int a = 0; a < nAisles; a++) {
+            c[a] = model.newBoolVar("");
+        }
+
+        // Tamanho da wave
+        model.addLinearConstraint(units, Math.max(waveSizeLB, 1), waveSizeUB);
+
+        // Disponibilidade de itens
+        for (int item = 0; item < instance.nItems(); item++) {
+            LinearExprBuilder row = LinearExpr.newBuilder();
+            boolean demanded = false;
+            for (int k = instance.itemOrderBegin(item); k < instance.itemOrderEnd(item); k++) {
+                if (servable[instance.itemOrder(k)]) {
+                    row.addTerm(p[instance.itemOrder(k)], instance.itemOrderQuantity(k));
+                    demanded = true;
+                }
+            }
+            if (!demanded) {
+                continue;
+            }
+            for (int k = instance.itemAisleBegin(item); k < instance.itemAisleEnd(item); k++) {
+                row.addTerm(c[instance.itemAisle(k)], -instance.itemAisleQuantity(k));
+            }
+            model.addLessOrEqual(row, 0);
+        }
+
+        // Razao: R * A <= scale * unidades
+        scale = Math.max(1L, (long) nAisles * Math.min(nAisles, waveSizeUB));
+        aisleCount = model.newIntVar(1, Math.max(nAisles, 1), "aisles");
+        model.addEquality(aisleCount, LinearExpr.sum(c));
+        ratio = model.newIntVar(0, scale * waveSizeUB, "ratio");
+        IntVar product = model.newIntVar(0, scale * waveSizeUB, "ratioTimesAisles");
+        model.addMultiplicationEquality(product, ratio, aisleCount);
+        model.addLessOrEqual(product, LinearExpr.term(units.build(), scale));
+        model.maximize(ratio);
+    }
+
+    @Override
+    public void setHint(CompactSolution hint) {
+        if (hint == null || hint.isEmpty()) {
+            return;
+        }
+        boolean[] orderIn = new boolean[p.length];
+        boolean[] aisleIn = new boolean[c.length];
+        long units = 0;
+        for (int k = 0; k < hint.orderCount(); k++) {
+            orderIn[hint.order(k)] = true;
+            units += instance.orderUnits(hint.order(k));
+        }
+        for (int k = 0; k < hint.aisleCount(); k++) {
+            aisleIn[hint.aisle(k)] = true;
+        }
+        for (int o = 0; o < p.length; o++) {
+            model.addHint(p[o], orderIn[o] ? 1 : 0);
+        }
+        for (int a = 0; a < c.length; a++) {
+            model.addHint(c[a], aisleIn[a] ? 1 : 0);
+        }
+        model.addHint(aisleCount, hint.aisleCount());
+        model.addHint(ratio, scale * units / hint.aisleCount());
+    }
+
+    @Override
+    public void fixVariables(ReducedCostFixing fixing) {
+        for (int o = 0; o < p.length; o++) {
+            if (fixing.orderFixed(o) >= 0) {
+                model.addEquality(p[o], fixing.orderFixed(o));
+            }
+        }
+        for (int a = 0; a < c.length; a++) {
+            if (fixing.aisleFixed(a) >= 0) {
+                model.addEquality(c[a], fixing.aisleFixed(a));
+            }
+        }
+    }
+
+    @Override
+    public CompactSolution solve(long timeLimitMillis, int numThreads, Incumbent incumbent) {
+        CpSolver solver = new CpSolver();
+        solver.getParameters()
+                .setMaxTimeInSeconds(Math.max(timeLimitMillis, 0) / 1000.0)
+                .setNumWorkers(numThreads);
+        if (extraParameters != null && !extraParameters.isEmpty()) {
+            try {
+                TextFormat.merge(extraParameters, solver.getParameters());
+            } catch (TextFormat.ParseException e) {
+                throw new IllegalArgumentException("Invalid CP-SAT parameters: " + extraParameters, e);
+            }
+        }
+
+        CpSolverStatus status = solver.solve(model, new CpSolverSolutionCallback() {
+            @Override
+            public void onSolutionCallback() {
+                if (incumbent != null) {
+                    incumbent.offer(currentSolution(this), name());
+                }
+            }
+        });
+        System.out.printf("CP-SAT finished: %s (ratio bound %.4f, %d branches)%n",
+                status, solver.bestObjectiveBound() / scale, solver.numBranches());
+        if (status != CpSolverStatus.OPTIMAL && status != CpSolverStatus.FEASIBLE) {
+            return null;
+        }
+
+        return extractSolution(solver::booleanValue);
+    }
+
+    private CompactSolution currentSolution(CpSolverSolutionCallback callback) {
+        return extractSolution(callback::booleanValue);
+    }
+
+    private CompactSolution extractSolution(Predicate<BoolVar> selected) {
+        int[] orders = new int[p.length];
+        int nOrders = 0;
+        for (int o = 0; o < p.length; o++) {
+            if (selected.test(p[o])) {
+                orders[nOrders++] = o;
+            }
+        }
+        int[] aisles = new int[c.length];
+        int nAisles = 0;
+        for (int a = 0; a < c.length; a++) {
+            if (selected.test(c[a])) {
+                aisles[nAisles++] = a;
+            }
+        }
+        return CompactSolution.of(Arrays.copyOf(orders, nOrders), Arrays.copyOf(aisles, nAisles));
+    }
+}
@@ -0,0 +1,117 @@
+package org.sbpo2025.challenge;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.ortools.linearsolver.MPSolver;
+
+/*
+ * Mede quanto os cortes de WaveCuts apertam o limitante do modelo: relaxacao linear
+ * (GLOP) com e sem cortes e, com --time-limit, o limitante dual do MIP (SCIP) depois
+ * desse tempo. O gap fechado e relativo ao valor da gulosa no mesmo objetivo
+ * (UB * corredores - unidades). Input: diretorios/arquivos separados por virgula;
+ * output: CSV.
+ */
+public class CutBenchmark {
+    private final RunOptions options;
+
+    public CutBenchmark(RunOptions options) {
+        this.options = options;
+    }
+
+    public void run() {
+        List<File> instances = BackendBenchmark.listInstances(options.inputPath);
+        boolean mip = options.timeLimitMillis > 0;
+
+        List<String> rows = new ArrayList<>();
+        rows.add("instance,cuts,greedy,lp,lp_cuts,lp_gap_closed,mip_bound,mip_bound_cuts,lp_ms,lp_cuts_ms");
+        System.out.printf("%-28s %6s %12s %12s %12s %7s %12s %12s%n",
+                "instance", "cuts", "greedy", "lp", "lp+cuts", "closed", "mip bound", "mip+cuts");
+        for (File file : instances) {
+            String instanceName = file.getParentFile().getName() + "/" + file.getName();
+            Challenge challenge = new Challenge();
+            challenge.readInput(file.getPath());
+            ChallengeSolver solver = challenge.newSolver(options);
+            boolean[] servable = solver.findServableOrders();
+            SparseInstance instance = solver.instance;
+            int waveSizeLB = solver.waveSizeLB;
+            int waveSizeUB = solver.waveSizeUB;
+
+            CompactSolution greedy = new GreedyHeuristic(instance, servable, waveSizeLB, waveSizeUB).run();
+            double reference = Double.NaN;
+            if (greedy != null) {
+                long units = 0;
+                for (int k = 0; k < greedy.orderCount(); k++) {
+                    units += instance.orderUnits(greedy.order(k));
+                }
+                reference = (double) waveSizeUB * greedy.aisleCount() - units;
+            }
+
+            Bound lp = bound(instance, servable, waveSizeLB, waveSizeUB, "GLOP", false, 0);
+            Bound lpCuts = bound(instance, servable, waveSizeLB, waveSizeUB, "GLOP", true, 0);
+            Bound mipBound = mip ? bound(instance, servable, waveSizeLB, waveSizeUB, "SCIP", false,
+                    options.timeLimitMillis) : null;
+            Bound mipCuts = mip ? bound(instance, servable, waveSizeLB, waveSizeUB, "SCIP", true,
+                    options.timeLimitMillis) : null;
+            double closed = reference - lp.value() > 1e-9
+                    ? 100 * (lpCuts.value() - lp.value()) / (reference - lp.value()) : 0;
+
+            rows.add(String.format("%s,%d,%.4f,%.4f,%.4f,%.2f,%s,%s,%d,%d", instanceName, lpCuts.cuts(), reference,
+                    lp.value(), lpCuts.value(), closed, mip ? String.format("%.4f", mipBound.value()) : "",
+                    mip ? String.format("%.4f", mipCuts.value()) : "", lp.millis(), lpCuts.millis()));
+            System.out.printf("%-28s %6d %12.2f %12.2f %12.2f %6.1f%% %12s %12s%n", instanceName, lpCuts.cuts(),
+                    reference, lp.value(), lpCuts.value(), closed,
+                    mip ? String.format("%.2f", mipBound.value()) : "-", mip ? String.format("%.2f", mipCuts.value()) : "-");
+        }
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(options.outputPath))) {
+            for (String row : rows) {
+                writer.write(row);
+                writer.newLine();
+            }
+            System.out.println("Cut benchmark written to " + options.outputPath);
+        } catch (IOException e) {
+            System.err.println("Error writing cut benchmark to " + options.outputPath);
+            e.printStackTrace();
+        }
+    }
+
+    private record Bound(double value, int cuts, long millis) {
+    }
+
+    /*
+     * GLOP resolve a relaxacao (as binarias viram [0, 1]); nos MIPs o valor e o limitante dual
+     */
+    private static Bound bound(SparseInstance instance, boolean[] servable, int waveSizeLB, int waveSizeUB,
+                               String solverId, boolean cuts, long timeLimitMillis) {
+        NativeLibraries.ensureLoaded();
+        MPSolver solver = MPSolver.createSolver(solverId);
+        if (solver == null) {
+            throw new IllegalStateException("Solver " + solverId + " is not available in this OR-Tools build");
+        }
+        try {
+            WaveModel model = WaveModel.build(solver, instance, servable, waveSizeLB, waveSizeUB,
+                    WaveModel.BuildMode.DIRECT, false);
+            int nCuts = cuts ? new WaveCuts(instance, servable, waveSizeLB, waveSizeUB).addTo(model).total() : 0;
+            if (timeLimitMillis > 0) {
+                solver.setTimeLimit(timeLimitMillis);
+            }
+            long start = System.currentTimeMillis();
+            MPSolver.ResultStatus status = solver.solve();
+            long elapsed = System.currentTimeMillis() - start;
+            double value;
+            if (timeLimitMillis > 0) {
+                value = solver.objective().bestBound();
+            } else {
+                value = status == MPSolver.ResultStatus.OPTIMAL ? solver.objective().value() : Double.NaN;
+            }
+            return new Bound(value, nCuts, elapsed);
+        } finally {
+            solver.delete();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Conjunto elite de waves: as K melhores pela razao, com diversidade pela distancia de
+ * Jaccard entre os conjuntos de corredores. Uma wave a menos de minDistance de alguma da
+ * pool so entra no lugar da mais proxima, e so se for melhor que ela; longe de todas,
+ * entra se houver vaga ou se bater a pior. O Incumbent repassa toda oferta viavel.
+ */
+public class ElitePool {
+    public static final int DEFAULT_CAPACITY = 10;
+    public static final double DEFAULT_MIN_DISTANCE = 0.1;
+
+    private record Entry(CompactSolution wave, double value, long[] aisles) {
+    }
+
+    private final int capacity;
+    private final double minDistance;
+    private final int nAisles;
+    private final List<Entry> entries = new ArrayList<>();
+    private long version;
+
+    public ElitePool(int nAisles) {
+        this(nAisles, DEFAULT_CAPACITY, DEFAULT_MIN_DISTANCE);
+    }
+
+    public ElitePool(int nAisles, int capacity, double minDistance) {
+        this.nAisles = nAisles;
+        this.capacity = capacity;
+        this.minDistance = minDistance;
+    }
+
+    /*
+     * Retorna true se a wave entrou na pool
+     */
+    public synchronized boolean add(CompactSolution wave, double value) {
+        if (wave == null || value < 0) {
+            return false;
+        }
+        long[] aisles = bits(wave);
+        int closest = -1;
+        double closestDistance = Double.POSITIVE_INFINITY;
+        int worst = -1;
+        for (int k = 0; k < entries.size(); k++) {
+            Entry entry = entries.get(k);
+            double distance = distance(aisles, entry.aisles());
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = k;
+            }
+            if (worst < 0 || entry.value() < entries.get(worst).value()) {
+                worst = k;
+            }
+        }
+        Entry entry = new Entry(wave, value, aisles);
+        if (closest >= 0 && closestDistance < minDistance) {
+            if (value <= entries.get(closest).value() + 1e-9) {
+                return false;
+            }
+            entries.set(closest, entry);
+        } else if (entries.size() < capacity) {
+            entries.add(entry);
+        } else if (value > entries.get(worst).value() + 1e-9) {
+            entries.set(worst, entry);
+        } else {
+            return false;
+        }
+        version++;
+        return true;
+    }
+
+    /*
+     * Waves da pool, da melhor para a pior
+     */
+    public synchronized List<CompactSolution> snapshot() {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort((a, b) -> Double.compare(b.value(), a.value()));
+        List<CompactSolution> waves = new ArrayList<>(sorted.size());
+        for (Entry entry : sorted) {
+            waves.add(entry.wave());
+        }
+        return waves;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /*
+     * Cresce a cada mudanca na pool
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    private long[] bits(CompactSolution wave) {
+        long[] bits = new long[(nAisles + 63) >>> 6];
+        for (int k = 0; k < wave.aisleCount(); k++) {
+            bits[wave.aisle(k) >>> 6] |= 1L << wave.aisle(k);
+        }
+        return bits;
+    }
+
+    /*
+     * 1 - |A inter B| / |A uniao B|
+     */
+    static double distance(long[] a, long[] b) {
+        int both = 0;
+        int either = 0;
+        for (int w = 0; w < a.length; w++) {
+            both += Long.bitCount(a[w] & b[w]);
+            either += Long.bitCount(a[w] | b[w]);
+        }
+        return either == 0 ? 0 : 1 - (double) both / either;
+    }
+
+    /*
+     * Valores da melhor para a pior, como em snapshot()
+     */
+    public synchronized String describe() {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort((a, b) -> Double.compare(b.value(), a.value()));
+        StringBuilder builder = new StringBuilder();
+        for (Entry entry : sorted) {
+            builder.append(builder.length() == 0 ? "" : ", ").append(String.format("%.2f", entry.value()));
+        }
+        return String.format("Elite pool: %d waves [%s]", entries.size(), builder);
+    }
+}
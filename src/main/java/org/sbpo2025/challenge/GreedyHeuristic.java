@@ -0,0 +1,117 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+
+/*
+ * Heuristica construtiva: abre corredores em ordem decrescente de estoque e, a cada
+ * corredor aberto, tenta encaixar (maiores primeiro) os pedidos que tocam os itens dele.
+ * Guarda o melhor prefixo (corredores, pedidos) pela razao unidades/corredores e no fim
+ * fecha os corredores que ficaram sobrando.
+ */
+public class GreedyHeuristic {
+    private final SparseInstance instance;
+    private final boolean[] servable;
+    private final int waveSizeLB;
+    private final int waveSizeUB;
+
+    public GreedyHeuristic(SparseInstance instance, boolean[] servable, int waveSizeLB, int waveSizeUB) {
+        this.instance = instance;
+        this.servable = servable;
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+    }
+
+    public CompactSolution run() {
+        return construct(instance.nAisles(), true);
+    }
+
+    /*
+     * Mesma construcao, mas usando no maximo maxAisles corredores e ficando com o prefixo
+     * de mais unidades (em vez da melhor razao)
+     */
+    public CompactSolution runWithAisleBudget(int maxAisles) {
+        return construct(Math.min(maxAisles, instance.nAisles()), false);
+    }
+
+    private CompactSolution construct(int maxAisles, boolean bestRatio) {
+        int nOrders = instance.nOrders();
+        int nAisles = maxAisles;
+        int[] aisleOrder = aislesByUnits(instance);
+
+        WaveState state = new WaveState(instance, waveSizeLB, waveSizeUB);
+        int[] stamp = new int[nOrders];
+        long[] candidates = new long[nOrders];
+        int[] added = new int[nOrders];
+        int nAdded = 0;
+
+        double bestScore = -1;
+        int bestAisles = 0;
+        int bestOrders = 0;
+        for (int step = 0; step < nAisles; step++) {
+            int aisle = aisleOrder[step];
+            state.addAisle(aisle);
+
+            // Candidatos: pedidos que tocam algum item do corredor recem aberto
+            int nCandidates = 0;
+            for (int k = instance.aisleBegin(aisle); k < instance.aisleEnd(aisle); k++) {
+                int item = instance.aisleItem(k);
+                for (int j = instance.itemOrderBegin(item); j < instance.itemOrderEnd(item); j++) {
+                    int order = instance.itemOrder(j);
+                    if (servable[order] && !state.hasOrder(order) && stamp[order] != step + 1) {
+                        stamp[order] = step + 1;
+                        candidates[nCandidates++] = ((long) instance.orderUnits(order) << 32) | order;
+                    }
+                }
+            }
+            Arrays.sort(candidates, 0, nCandidates);
+            for (int j = nCandidates - 1; j >= 0; j--) {
+                int order = (int) candidates[j];
+                if (state.canAddOrder(order)) {
+                    state.addOrder(order);
+                    added[nAdded++] = order;
+                }
+            }
+
+            double score = bestRatio ? state.ratio() : state.units();
+            if (state.units() >= Math.max(waveSizeLB, 1) && score > bestScore) {
+                bestScore = score;
+                bestAisles = step + 1;
+                bestOrders = nAdded;
+            }
+            // Com o UB saturado, abrir mais corredores so piora a razao
+            if (state.units() >= waveSizeUB) {
+                break;
+            }
+        }
+        if (bestScore < 0) {
+            return null;
+        }
+
+        state.clear();
+        for (int k = 0; k < bestAisles; k++) {
+            state.addAisle(aisleOrder[k]);
+        }
+        for (int k = 0; k < bestOrders; k++) {
+            state.addOrder(added[k]);
+        }
+        for (int k = bestAisles - 1; k >= 0 && state.aisleCount() > 1; k--) {
+            if (state.canRemoveAisle(aisleOrder[k])) {
+                state.removeAisle(aisleOrder[k]);
+            }
+        }
+        return state.toSolution();
+    }
+
+    static int[] aislesByUnits(SparseInstance instance) {
+        long[] keys = new long[instance.nAisles()];
+        for (int a = 0; a < keys.length; a++) {
+            keys[a] = ((long) instance.aisleUnits(a) << 32) | a;
+        }
+        Arrays.sort(keys);
+        int[] aisles = new int[keys.length];
+        for (int k = 0; k < keys.length; k++) {
+            aisles[k] = (int) keys[keys.length - 1 - k];
+        }
+        return aisles;
+    }
+}
@@ -0,0 +1,41 @@
+package org.sbpo2025.challenge;
+
+/*
+ * Backend puramente Java, sem solver externo: so a heuristica construtiva
+ */
+public class HeuristicBackend implements SolverBackend {
+    private SparseInstance instance;
+    private boolean[] servable;
+    private int waveSizeLB;
+    private int waveSizeUB;
+    private CompactSolution hint;
+
+    @Override
+    public String name() {
+        return "heuristic";
+    }
+
+    @Override
+    public void buildModel(SparseInstance instance, boolean[] servable, int waveSizeLB, int waveSizeUB) {
+        this.instance = instance;
+        this.servable = servable;
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+    }
+
+    @Override
+    public void setHint(CompactSolution hint) {
+        this.hint = hint;
+    }
+
+    @Override
+    public CompactSolution solve(long timeLimitMillis, int numThreads, Incumbent incumbent) {
+        CompactSolution solution = new GreedyHeuristic(instance, servable, waveSizeLB, waveSizeUB).run();
+        if (incumbent != null) {
+            incumbent.offer(hint, "hint");
+            incumbent.offer(solution, name());
+            return incumbent.best();
+        }
+        return solution;
+    }
+}
@@ -0,0 +1,82 @@
+package org.sbpo2025.challenge;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToDoubleFunction;
+import java.util.function.UnaryOperator;
+
+/*
+ * Melhor solucao conhecida, compartilhada entre heuristicas e backends. Toda oferta e
+ * avaliada (e verificada) pelo evaluator; valores negativos indicam solucao inviavel.
+ */
+public class Incumbent {
+    public interface Listener {
+        void onImprovement(CompactSolution solution, double value, String source);
+    }
+
+    private final ToDoubleFunction<CompactSolution> evaluator;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private UnaryOperator<CompactSolution> improver = UnaryOperator.identity();
+    private ElitePool pool;
+    private CompactSolution best;
+    private double bestValue = Double.NEGATIVE_INFINITY;
+
+    public Incumbent(ToDoubleFunction<CompactSolution> evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /*
+     * Aplicado a toda oferta antes da avaliacao (por exemplo, reduzir os corredores)
+     */
+    public void setImprover(UnaryOperator<CompactSolution> improver) {
+        this.improver = improver;
+    }
+
+    /*
+     * Toda oferta viavel (nao so as melhoras) tambem e oferecida a pool
+     */
+    public void setPool(ElitePool pool) {
+        this.pool = pool;
+    }
+
+    public ElitePool pool() {
+        return pool;
+    }
+
+    /*
+     * Retorna true se a solucao for viavel e melhor que a atual
+     */
+    public boolean offer(CompactSolution solution, String source) {
+        if (solution == null) {
+            return false;
+        }
+        solution = improver.apply(solution);
+        double value = evaluator.applyAsDouble(solution);
+        if (pool != null) {
+            pool.add(solution, value);
+        }
+        synchronized (this) {
+            if (value < 0 || value <= bestValue + 1e-9) {
+                return false;
+            }
+            best = solution;
+            bestValue = value;
+        }
+        for (Listener listener : listeners) {
+            listener.onImprovement(solution, value, source);
+        }
+        return true;
+    }
+
+    public synchronized CompactSolution best() {
+        return best;
+    }
+
+    public synchronized double bestValue() {
+        return bestValue;
+    }
+}
@@ -0,0 +1,97 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Caracteristicas da instancia para a escolha de estrategia (StrategyRules), numa passada
+ * sobre o CSR:
+ *   orders, items, aisles, nnz            dimensoes e nao-zeros (pedidos + corredores)
+ *   orderUnits, orderUnitsP90, orderItems tamanho dos pedidos (media, percentil 90, itens)
+ *   aisleOverlap                          corredores por item demandado (media)
+ *   tightness                             media de min(1, demanda / estoque) nos itens demandados
+ *   ubShare                               UB / unidades de todos os pedidos
+ */
+public record InstanceFeatures(int orders, int items, int aisles, long nnz, double orderUnits,
+                               double orderUnitsP90, double orderItems, double aisleOverlap,
+                               double tightness, double ubShare) {
+
+    public static final List<String> NAMES = List.of("orders", "items", "aisles", "nnz", "orderUnits",
+            "orderUnitsP90", "orderItems", "aisleOverlap", "tightness", "ubShare");
+
+    public static InstanceFeatures extract(SparseInstance instance, int waveSizeUB) {
+        int nOrders = instance.nOrders();
+        int nItems = instance.nItems();
+        int nAisles = instance.nAisles();
+        long orderNnz = instance.orderBegin(nOrders);
+        long aisleNnz = instance.aisleBegin(nAisles);
+
+        long[] demand = new long[nItems];
+        int[] units = new int[nOrders];
+        long totalUnits = 0;
+        for (int o = 0; o < nOrders; o++) {
+            for (int k = instance.orderBegin(o); k < instance.orderEnd(o); k++) {
+                demand[instance.orderItem(k)] += instance.orderQuantity(k);
+            }
+            units[o] = instance.orderUnits(o);
+            totalUnits += units[o];
+        }
+        long[] stock = new long[nItems];
+        for (int k = 0; k < aisleNnz; k++) {
+            stock[instance.aisleItem(k)] += instance.aisleQuantity(k);
+        }
+
+        int demanded = 0;
+        double overlap = 0;
+        double tightness = 0;
+        for (int i = 0; i < nItems; i++) {
+            if (demand[i] > 0) {
+                demanded++;
+                overlap += instance.itemAisleEnd(i) - instance.itemAisleBegin(i);
+                tightness += stock[i] == 0 ? 1 : Math.min(1.0, (double) demand[i] / stock[i]);
+            }
+        }
+        Arrays.sort(units);
+        double p90 = nOrders == 0 ? 0 : units[Math.min(nOrders - 1, (int) (0.9 * nOrders))];
+
+        return new InstanceFeatures(nOrders, nItems, nAisles, orderNnz + aisleNnz,
+                nOrders == 0 ? 0 : (double) totalUnits / nOrders, p90,
+                nOrders == 0 ? 0 : (double) orderNnz / nOrders,
+                demanded == 0 ? 0 : overlap / demanded,
+                demanded == 0 ? 0 : tightness / demanded,
+                totalUnits == 0 ? 0 : Math.min(1.0, (double) waveSizeUB / totalUnits));
+    }
+
+    public double get(String name) {
+        switch (name) {
+            case "orders":
+                return orders;
+            case "items":
+                return items;
+            case "aisles":
+                return aisles;
+            case "nnz":
+                return nnz;
+            case "orderUnits":
+                return orderUnits;
+            case "orderUnitsP90":
+                return orderUnitsP90;
+            case "orderItems":
+                return orderItems;
+            case "aisleOverlap":
+                return aisleOverlap;
+            case "tightness":
+                return tightness;
+            case "ubShare":
+                return ubShare;
+            default:
+                throw new IllegalArgumentException("Unknown feature: " + name + " (expected one of " + NAMES + ")");
+        }
+    }
+
+    public String describe() {
+        return String.format("Features: orders=%d items=%d aisles=%d nnz=%d orderUnits=%.2f orderUnitsP90=%.0f"
+                        + " orderItems=%.2f aisleOverlap=%.2f tightness=%.3f ubShare=%.4f",
+                orders, items, aisles, nnz, orderUnits, orderUnitsP90, orderItems, aisleOverlap, tightness, ubShare);
+    }
+}
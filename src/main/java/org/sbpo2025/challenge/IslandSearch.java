@@ -0,0 +1,338 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*
+ * Algoritmo genetico em ilhas. O cromossomo e o conjunto de corredores (bits); os pedidos
+ * sao decodificados pela gulosa de mochila por densidade da TabuSearch sobre o WaveState,
+ * aplicando so a diferenca de corredores para o filho anterior, sem alocar nada na
+ * avaliacao. Cada filho:
+ *   - cruzamento que preserva os corredores comuns aos pais e sorteia os demais;
+ *   - mutacao de um ou dois bits;
+ *   - reparo: abaixo do LB abre corredores pela ordem da gulosa e completa o empacotamento;
+ *     depois fecha os corredores cujo estoque nao e usado (o UB o empacotamento ja garante);
+ *   - substituicao estacionaria: entra no lugar do pior se for melhor e nao repetido.
+ * As ilhas sao divididas entre a thread do slot e as threads de heuristica que os outros
+ * slots do pipeline deixam livres (sem elas, rodam alternadas numa so) e a cada epoca a
+ * melhor de cada ilha migra para a seguinte no anel. Toda melhora de uma ilha e oferecida
+ * ao incumbente.
+ */
+public class IslandSearch implements SearchWorker {
+    private static final long SEED = 20250627L;
+    private static final int MIN_ISLANDS = 4;
+    private static final int POPULATION = 24;
+    private static final int EPOCH = 500;
+    // Filhos entre consultas ao relogio dentro de uma epoca
+    private static final int DEADLINE_CHECK = 32;
+
+    private final SparseInstance instance;
+    private final boolean[] servable;
+    private final int waveSizeLB;
+    private final int waveSizeUB;
+    private final int threads;
+    private final int[] priority;
+    private final int[] aisleRank;
+
+    public IslandSearch(SparseInstance instance, boolean[] servable, int waveSizeLB, int waveSizeUB, int threads) {
+        this.instance = instance;
+        this.servable = servable;
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+        this.threads = Math.max(threads, 1);
+        this.priority = TabuSearch.densityOrder(instance, servable);
+        this.aisleRank = GreedyHeuristic.aislesByUnits(instance);
+    }
+
+    @Override
+    public String name() {
+        return "ga";
+    }
+
+    @Override
+    public void run(long timeLimitMillis, Incumbent incumbent) {
+        long start = System.currentTimeMillis();
+        long deadline = start + timeLimitMillis;
+        if (priority.length == 0) {
+            return;
+        }
+        List<CompactSolution> seeds = seeds(incumbent);
+        if (seeds.isEmpty()) {
+            return;
+        }
+        int nIslands = Math.max(MIN_ISLANDS, threads);
+        Island[] islands = new Island[nIslands];
+        for (int i = 0; i < nIslands; i++) {
+            islands[i] = new Island(i, seeds);
+        }
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 1; t < threads; t++) {
+            int first = t;
+            Thread thread = new Thread(() -> evolve(islands, first, deadline, incumbent), "ga-" + t);
+            thread.start();
+            workers.add(thread);
+        }
+        evolve(islands, 0, deadline, incumbent);
+        for (Thread thread : workers) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        long children = 0;
+        double best = Double.NEGATIVE_INFINITY;
+        for (Island island : islands) {
+            children += island.children;
+            best = Math.max(best, island.fitness[island.best()]);
+        }
+        System.out.printf("GA: %d islands, %d children (%.0f/s), best %.4f%n", nIslands, children,
+                children * 1000.0 / Math.max(1, System.currentTimeMillis() - start), best);
+    }
+
+    /*
+     * A thread percorre as ilhas first, first + threads, ... uma epoca por vez
+     */
+    private void evolve(Island[] islands, int first, long deadline, Incumbent incumbent) {
+        while (System.currentTimeMillis() < deadline) {
+            for (int i = first; i < islands.length && System.currentTimeMillis() < deadline; i += threads) {
+                Island island = islands[i];
+                island.immigrate();
+                for (int k = 0; k < EPOCH; k++) {
+                    if (k % DEADLINE_CHECK == 0 && System.currentTimeMillis() >= deadline) {
+                        return;
+                    }
+                    island.breed(incumbent);
+                }
+                islands[(i + 1) % islands.length].receive(island);
+            }
+        }
+    }
+
+    /*
+     * Incumbente, pool elite e construcoes gulosas com orcamentos variados
+     */
+    private List<CompactSolution> seeds(Incumbent incumbent) {
+        List<CompactSolution> seeds = new ArrayList<>();
+        if (incumbent.pool() != null) {
+            seeds.addAll(incumbent.pool().snapshot());
+        } else if (incumbent.best() != null) {
+            seeds.add(incumbent.best());
+        }
+        GreedyHeuristic greedy = new GreedyHeuristic(instance, servable, waveSizeLB, waveSizeUB);
+        CompactSolution start = greedy.run();
+        if (start != null && !start.isEmpty()) {
+            seeds.add(start);
+        }
+        for (int r = 1; r <= 4; r++) {
+            CompactSolution wave = greedy.runWithAisleBudget(Math.max(1, instance.nAisles() * r / 8));
+            if (wave != null && !wave.isEmpty()) {
+                seeds.add(wave);
+            }
+        }
+        return seeds;
+    }
+
+    private final class Island {
+        private final SplittableRandom random;
+        private final WaveState state = new WaveState(instance, waveSizeLB, waveSizeUB);
+        private final int words = (instance.nAisles() + 63) >>> 6;
+
+        private final long[][] population = new long[POPULATION][words];
+        private final double[] fitness = new double[POPULATION];
+        private final long[] hash = new long[POPULATION];
+        private final long[] child = new long[words];
+
+        // Corredores abertos no WaveState e pedidos empacotados (o filho decodificado por ultimo)
+        private final long[] current = new long[words];
+        private final int[] packed = new int[priority.length];
+        private int nPacked;
+
+        // Migrante recebido da ilha anterior no anel
+        private final long[] inbox = new long[words];
+        private double inboxFitness = Double.NEGATIVE_INFINITY;
+
+        private double bestFitness = Double.NEGATIVE_INFINITY;
+        private long children;
+
+        Island(int index, List<CompactSolution> seeds) {
+            this.random = new SplittableRandom(SEED + index);
+            for (int p = 0; p < POPULATION; p++) {
+                CompactSolution seed = seeds.get((p + index) % seeds.size());
+                Arrays.fill(child, 0);
+                for (int k = 0; k < seed.aisleCount(); k++) {
+                    child[seed.aisle(k) >>> 6] |= 1L << seed.aisle(k);
+                }
+                // Alem da primeira volta pelas sementes, copias mutadas
+                if (p >= seeds.size()) {
+                    mutate();
+                }
+                fitness[p] = decode();
+                System.arraycopy(child, 0, population[p], 0, words);
+                hash[p] = hash(child);
+            }
+        }
+
+        void breed(Incumbent incumbent) {
+            int a = tournament();
+            int b = tournament();
+            long[] x = population[a];
+            long[] y = population[b];
+            for (int w = 0; w < words; w++) {
+                // Comuns ficam; cada corredor de so um dos pais entra com 1/2
+                child[w] = (x[w] & y[w]) | ((x[w] ^ y[w]) & random.nextLong());
+            }
+            mutate();
+            double value = decode();
+            children++;
+            replaceWorst(value);
+            if (value > bestFitness + 1e-9) {
+                bestFitness = value;
+                if (value > 0 && value > incumbent.bestValue() + 1e-9) {
+                    incumbent.offer(state.toSolution(), name());
+                }
+            }
+        }
+
+        private int tournament() {
+            int a = random.nextInt(POPULATION);
+            int b = random.nextInt(POPULATION);
+            return fitness[a] >= fitness[b] ? a : b;
+        }
+
+        private void mutate() {
+            int flips = 1 + random.nextInt(2);
+            for (int f = 0; f < flips; f++) {
+                int aisle = random.nextInt(instance.nAisles());
+                child[aisle >>> 6] ^= 1L << aisle;
+            }
+        }
+
+        private void replaceWorst(double value) {
+            int worst = 0;
+            for (int p = 1; p < POPULATION; p++) {
+                if (fitness[p] < fitness[worst]) {
+                    worst = p;
+                }
+            }
+            if (value <= fitness[worst]) {
+                return;
+            }
+            long h = hash(child);
+            for (int p = 0; p < POPULATION; p++) {
+                if (hash[p] == h && fitness[p] == value) {
+                    return;
+                }
+            }
+            System.arraycopy(child, 0, population[worst], 0, words);
+            fitness[worst] = value;
+            hash[worst] = h;
+        }
+
+        int best() {
+            int best = 0;
+            for (int p = 1; p < POPULATION; p++) {
+                if (fitness[p] > fitness[best]) {
+                    best = p;
+                }
+            }
+            return best;
+        }
+
+        synchronized void receive(Island from) {
+            int best = from.best();
+            System.arraycopy(from.population[best], 0, inbox, 0, words);
+            inboxFitness = from.fitness[best];
+        }
+
+        synchronized void immigrate() {
+            if (inboxFitness == Double.NEGATIVE_INFINITY) {
+                return;
+            }
+            System.arraycopy(inbox, 0, child, 0, words);
+            replaceWorst(inboxFitness);
+            inboxFitness = Double.NEGATIVE_INFINITY;
+        }
+
+        /*
+         * Decodifica child no WaveState, repara e grava em child os corredores que ficaram
+         */
+        private double decode() {
+            for (int k = 0; k < nPacked; k++) {
+                state.removeOrder(packed[k]);
+            }
+            nPacked = 0;
+            for (int w = 0; w < words; w++) {
+                for (long diff = child[w] ^ current[w]; diff != 0; diff &= diff - 1) {
+                    int aisle = (w << 6) + Long.numberOfTrailingZeros(diff);
+                    if ((child[w] & (1L << aisle)) != 0) {
+                        state.addAisle(aisle);
+                    } else {
+                        state.removeAisle(aisle);
+                    }
+                }
+                current[w] = child[w];
+            }
+            pack();
+
+            // Reparo: abaixo do LB, abre corredores na ordem da gulosa
+            for (int r = 0; r < aisleRank.length && state.units() < waveSizeLB; r++) {
+                int aisle = aisleRank[r];
+                if (!state.hasAisle(aisle)) {
+                    state.addAisle(aisle);
+                    current[aisle >>> 6] |= 1L << aisle;
+                    pack();
+                }
+            }
+            // e fecha os corredores sem estoque usado
+            for (int w = 0; w < words; w++) {
+                for (long open = current[w]; open != 0; open &= open - 1) {
+                    int aisle = (w << 6) + Long.numberOfTrailingZeros(open);
+                    if (state.aisleCount() > 1 && state.canRemoveAisle(aisle)) {
+                        state.removeAisle(aisle);
+                        current[w] &= ~(1L << aisle);
+                    }
+                }
+            }
+            System.arraycopy(current, 0, child, 0, words);
+            return score();
+        }
+
+        /*
+         * Completa o empacotamento por densidade com os pedidos que ainda cabem
+         */
+        private void pack() {
+            for (int order : priority) {
+                if (state.units() >= waveSizeUB) {
+                    break;
+                }
+                if (!state.hasOrder(order) && state.canAddOrder(order)) {
+                    state.addOrder(order);
+                    packed[nPacked++] = order;
+                }
+            }
+        }
+
+        private double score() {
+            if (state.aisleCount() == 0 || state.units() == 0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            if (state.units() < waveSizeLB) {
+                return state.units() - waveSizeLB;
+            }
+            return state.ratio();
+        }
+
+        private long hash(long[] bits) {
+            long h = 1;
+            for (long word : bits) {
+                h = 31 * h + word;
+            }
+            return h;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.sbpo2025.challenge;
+
+/*
+ * Mascaras de presenca de itens por pedido e por corredor. Cada linha guarda apenas as
+ * palavras de 64 bits nao nulas (indice da palavra + mascara), como nos containers do
+ * roaring bitmap, entao um pedido com poucos itens custa poucas palavras mesmo com 37k+
+ * itens. A uniao dos corredores abertos fica densa (long[]), e a triagem de um pedido
+ * contra ela e um AND por palavra do pedido; so quem passa vai para a checagem exata
+ * de quantidades.
+ */
+public class ItemCoverage {
+    private final int nWords;
+    private final int[] orderWordStart;
+    private final int[] orderWordIndex;
+    private final long[] orderWordMask;
+    private final int[] aisleWordStart;
+    private final int[] aisleWordIndex;
+    private final long[] aisleWordMask;
+
+    public ItemCoverage(SparseInstance instance) {
+        this.nWords = (instance.nItems() + 63) >>> 6;
+
+        int nOrders = instance.nOrders();
+        this.orderWordStart = new int[nOrders + 1];
+        int orderWords = 0;
+        for (int o = 0; o < nOrders; o++) {
+            orderWords += countWords(instance, instance.orderBegin(o), instance.orderEnd(o), true);
+        }
+        this.orderWordIndex = new int[orderWords];
+        this.orderWordMask = new long[orderWords];
+        int k = 0;
+        for (int o = 0; o < nOrders; o++) {
+            orderWordStart[o] = k;
+            k = fillWords(instance, instance.orderBegin(o), instance.orderEnd(o), true, orderWordIndex, orderWordMask, k);
+        }
+        orderWordStart[nOrders] = k;
+
+        int nAisles = instance.nAisles();
+        this.aisleWordStart = new int[nAisles + 1];
+        int aisleWords = 0;
+        for (int a = 0; a < nAisles; a++) {
+            aisleWords += countWords(instance, instance.aisleBegin(a), instance.aisleEnd(a), false);
+        }
+        this.aisleWordIndex = new int[aisleWords];
+        this.aisleWordMask = new long[aisleWords];
+        k = 0;
+        for (int a = 0; a < nAisles; a++) {
+            aisleWordStart[a] = k;
+            k = fillWords(instance, instance.aisleBegin(a), instance.aisleEnd(a), false, aisleWordIndex, aisleWordMask, k);
+        }
+        aisleWordStart[nAisles] = k;
+    }
+
+    /*
+     * Os itens de cada linha ja estao ordenados no CSR, entao as palavras saem em ordem
+     */
+    private static int countWords(SparseInstance instance, int begin, int end, boolean order) {
+        int words = 0;
+        int last = -1;
+        for (int k = begin; k < end; k++) {
+            int word = (order ? instance.orderItem(k) : instance.aisleItem(k)) >>> 6;
+            if (word != last) {
+                words++;
+                last = word;
+            }
+        }
+        return words;
+    }
+
+    private static int fillWords(SparseInstance instance, int begin, int end, boolean order,
+                                 int[] wordIndex, long[] wordMask, int k) {
+        int last = -1;
+        for (int j = begin; j < end; j++) {
+            int item = order ? instance.orderItem(j) : instance.aisleItem(j);
+            int word = item >>> 6;
+            if (word != last) {
+                wordIndex[k] = word;
+                k++;
+                last = word;
+            }
+            wordMask[k - 1] |= 1L << item;
+        }
+        return k;
+    }
+
+    public long[] newMask() {
+        return new long[nWords];
+    }
+
+    public static void setItem(long[] mask, int item) {
+        mask[item >>> 6] |= 1L << item;
+    }
+
+    public void addAisle(long[] mask, int aisle) {
+        for (int k = aisleWordStart[aisle]; k < aisleWordStart[aisle + 1]; k++) {
+            mask[aisleWordIndex[k]] |= aisleWordMask[k];
+        }
+    }
+
+    /*
+     * Todos os itens do pedido estao presentes na mascara?
+     */
+    public boolean covers(long[] mask, int order) {
+        for (int k = orderWordStart[order]; k < orderWordStart[order + 1]; k++) {
+            long word = orderWordMask[k];
+            if ((mask[orderWordIndex[k]] & word) != word) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * O corredor tem pelo menos um item do pedido? (merge das duas listas esparsas)
+     */
+    public boolean intersects(int aisle, int order) {
+        int i = aisleWordStart[aisle];
+        int iEnd = aisleWordStart[aisle + 1];
+        int j = orderWordStart[order];
+        int jEnd = orderWordStart[order + 1];
+        while (i < iEnd && j < jEnd) {
+            int wi = aisleWordIndex[i];
+            int wj = orderWordIndex[j];
+            if (wi < wj) {
+                i++;
+            } else if (wi > wj) {
+                j++;
+            } else {
+                if ((aisleWordMask[i] & orderWordMask[j]) != 0) {
+                    return true;
+                }
+                i++;
+                j++;
+            }
+        }
+        return false;
+    }
+}
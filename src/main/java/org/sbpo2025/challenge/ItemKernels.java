@@ -0,0 +1,122 @@
+package org.sbpo2025.challenge;
+
+import java.nio.IntBuffer;
+
+/*
+ * Kernels inteiros sobre vetores por item, usados pelo verificador, pelo presolve e pelas
+ * heuristicas:
+ *   - anyGreater: algum a[i] > b[i] (demanda contra estoque);
+ *   - anyNegative: alguma folga negativa;
+ *   - minSlack: min de slack[items[k]] - quantities[k] numa linha CSR (o pedido cabe?
+ *     o corredor pode sair?);
+ *   - addRow: slack[items[k]] += sign * quantities[k] numa linha CSR, devolvendo quantos
+ *     itens passaram a ter folga negativa menos quantos deixaram de ter.
+ * Com o modulo jdk.incubator.vector no boot layer (java --add-modules jdk.incubator.vector)
+ * os kernels usam VectorItemKernels; sem ele, ou com -Dsbpo.kernels=scalar, ficam nas
+ * versoes escalares daqui. A escolha e fixada na carga da classe e o JIT elimina o desvio.
+ * Nos kernels de linha o gather/scatter so compensa em linhas longas (corredores); linhas
+ * de pedidos, quase sempre curtas, ficam no escalar mesmo com o modulo. As linhas de uma
+ * MappedInstance ficam em IntBuffer fora do heap e usam so as versoes escalares.
+ */
+public final class ItemKernels {
+    static final boolean VECTOR = detectVector();
+    private static final int VECTOR_MIN_ROW = VECTOR ? VectorItemKernels.minRow() : Integer.MAX_VALUE;
+
+    private ItemKernels() {
+    }
+
+    private static boolean detectVector() {
+        if ("scalar".equalsIgnoreCase(System.getProperty("sbpo.kernels"))) {
+            return false;
+        }
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    public static String describe() {
+        return VECTOR ? "vector (" + VectorItemKernels.describe() + ")" : "scalar";
+    }
+
+    public static boolean anyGreater(int[] a, int[] b, int length) {
+        return VECTOR ? VectorItemKernels.anyGreater(a, b, length) : scalarAnyGreater(a, b, length);
+    }
+
+    public static boolean anyNegative(int[] a, int length) {
+        return VECTOR ? VectorItemKernels.anyNegative(a, length) : scalarAnyNegative(a, length);
+    }
+
+    public static int minSlack(int[] slack, int[] items, int[] quantities, int begin, int end) {
+        return end - begin >= VECTOR_MIN_ROW ? VectorItemKernels.minSlack(slack, items, quantities, begin, end)
+                : scalarMinSlack(slack, items, quantities, begin, end);
+    }
+
+    public static int addRow(int[] slack, int[] items, int[] quantities, int begin, int end, int sign) {
+        return end - begin >= VECTOR_MIN_ROW ? VectorItemKernels.addRow(slack, items, quantities, begin, end, sign)
+                : scalarAddRow(slack, items, quantities, begin, end, sign);
+    }
+
+    public static int minSlack(int[] slack, IntBuffer items, IntBuffer quantities, int begin, int end) {
+        int min = Integer.MAX_VALUE;
+        for (int k = begin; k < end; k++) {
+            min = Math.min(min, slack[items.get(k)] - quantities.get(k));
+        }
+        return min;
+    }
+
+    public static int addRow(int[] slack, IntBuffer items, IntBuffer quantities, int begin, int end, int sign) {
+        int violations = 0;
+        for (int k = begin; k < end; k++) {
+            int item = items.get(k);
+            int before = slack[item];
+            int after = before + sign * quantities.get(k);
+            slack[item] = after;
+            if (before >= 0 && after < 0) {
+                violations++;
+            } else if (before < 0 && after >= 0) {
+                violations--;
+            }
+        }
+        return violations;
+    }
+
+    static boolean scalarAnyGreater(int[] a, int[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[i] > b[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean scalarAnyNegative(int[] a, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[i] < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static int scalarMinSlack(int[] slack, int[] items, int[] quantities, int begin, int end) {
+        int min = Integer.MAX_VALUE;
+        for (int k = begin; k < end; k++) {
+            min = Math.min(min, slack[items[k]] - quantities[k]);
+        }
+        return min;
+    }
+
+    static int scalarAddRow(int[] slack, int[] items, int[] quantities, int begin, int end, int sign) {
+        int violations = 0;
+        for (int k = begin; k < end; k++) {
+            int item = items[k];
+            int before = slack[item];
+            int after = before + sign * quantities[k];
+            slack[item] = after;
+            if (before >= 0 && after < 0) {
+                violations++;
+            } else if (before < 0 && after >= 0) {
+                violations--;
+            }
+        }
+        return violations;
+    }
+}
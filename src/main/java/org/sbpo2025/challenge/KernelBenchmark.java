@@ -0,0 +1,157 @@
+package org.sbpo2025.challenge;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Compara os kernels de ItemKernels, escalar contra SIMD, nas linhas reais de cada
+ * instancia (rode com java --add-modules jdk.incubator.vector para ter a coluna vector).
+ * A coluna vector chama VectorItemKernels direto, sem o corte de linhas curtas:
+ *   - anyGreater: verificador com demanda = estoque total (varre o vetor inteiro);
+ *   - minSlack: todas as linhas de pedidos contra o estoque total (presolve);
+ *   - addRow: abre e fecha todos os corredores (WaveState).
+ * Cada rodada repete o kernel ate passar de MIN_MILLIS; vale a melhor das rodadas depois
+ * do aquecimento, em ns por linha (ou por vetor). Input: diretorios/arquivos; output: CSV.
+ */
+public class KernelBenchmark {
+    private static final long MIN_MILLIS = 200;
+    private static final int ROUNDS = 5;
+
+    // Destino dos retornos, para o JIT nao eliminar as passadas
+    private static volatile long sink;
+
+    private final RunOptions options;
+
+    public KernelBenchmark(RunOptions options) {
+        this.options = options;
+    }
+
+    private interface Kernel {
+        long pass();
+    }
+
+    public void run() {
+        List<File> instances = BackendBenchmark.listInstances(options.inputPath);
+        System.out.println("Item kernels: " + ItemKernels.describe());
+
+        List<String> rows = new ArrayList<>();
+        rows.add("instance,kernel,rows,scalar_ns,vector_ns,speedup");
+        System.out.printf("%-28s %-12s %9s %10s %10s %8s%n", "instance", "kernel", "rows", "scalar ns", "vector ns", "speedup");
+        for (File file : instances) {
+            String instanceName = file.getParentFile().getName() + "/" + file.getName();
+            Challenge challenge = new Challenge();
+            challenge.readInput(file.getPath());
+            SparseInstance instance = challenge.newSolver(options).instance;
+            if (instance.orderItems() == null) {
+                // Instancia binaria: linhas so nos buffers mapeados, sem vetores para comparar
+                System.out.println(instanceName + ": skipped (binary instance)");
+                continue;
+            }
+
+            int nItems = instance.nItems();
+            int[] stock = new int[nItems];
+            for (int a = 0; a < instance.nAisles(); a++) {
+                for (int k = instance.aisleBegin(a); k < instance.aisleEnd(a); k++) {
+                    stock[instance.aisleItem(k)] += instance.aisleQuantity(k);
+                }
+            }
+            int[] demand = stock.clone();
+            int[] orderItems = instance.orderItems();
+            int[] orderQuantities = instance.orderQuantities();
+            int[] aisleItems = instance.aisleItems();
+            int[] aisleQuantities = instance.aisleQuantities();
+            int[] slack = new int[nItems];
+
+            Kernel[] scalar = {
+                    () -> ItemKernels.scalarAnyGreater(demand, stock, nItems) ? 1 : 0,
+                    () -> {
+                        long sum = 0;
+                        for (int o = 0; o < instance.nOrders(); o++) {
+                            sum += ItemKernels.scalarMinSlack(stock, orderItems, orderQuantities,
+                                    instance.orderBegin(o), instance.orderEnd(o));
+                        }
+                        return sum;
+                    },
+                    () -> {
+                        long sum = 0;
+                        for (int sign = 1; sign >= -1; sign -= 2) {
+                            for (int a = 0; a < instance.nAisles(); a++) {
+                                sum += ItemKernels.scalarAddRow(slack, aisleItems, aisleQuantities,
+                                        instance.aisleBegin(a), instance.aisleEnd(a), sign);
+                            }
+                        }
+                        return sum;
+                    }};
+            Kernel[] vector = !ItemKernels.VECTOR ? null : new Kernel[] {
+                    () -> VectorItemKernels.anyGreater(demand, stock, nItems) ? 1 : 0,
+                    () -> {
+                        long sum = 0;
+                        for (int o = 0; o < instance.nOrders(); o++) {
+                            sum += VectorItemKernels.minSlack(stock, orderItems, orderQuantities,
+                                    instance.orderBegin(o), instance.orderEnd(o));
+                        }
+                        return sum;
+                    },
+                    () -> {
+                        long sum = 0;
+                        for (int sign = 1; sign >= -1; sign -= 2) {
+                            for (int a = 0; a < instance.nAisles(); a++) {
+                                sum += VectorItemKernels.addRow(slack, aisleItems, aisleQuantities,
+                                        instance.aisleBegin(a), instance.aisleEnd(a), sign);
+                            }
+                        }
+                        return sum;
+                    }};
+            String[] names = {"anyGreater", "minSlack", "addRow"};
+            int[] perPass = {1, instance.nOrders(), 2 * instance.nAisles()};
+
+            for (int k = 0; k < names.length; k++) {
+                double scalarNs = measure(scalar[k]) / perPass[k];
+                double vectorNs = vector == null ? Double.NaN : measure(vector[k]) / perPass[k];
+                double speedup = scalarNs / vectorNs;
+                rows.add(String.format("%s,%s,%d,%.2f,%.2f,%.2f", instanceName, names[k], perPass[k],
+                        scalarNs, vectorNs, speedup));
+                System.out.printf("%-28s %-12s %9d %10.2f %10.2f %7.2fx%n", instanceName, names[k], perPass[k],
+                        scalarNs, vectorNs, speedup);
+            }
+        }
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(options.outputPath))) {
+            for (String row : rows) {
+                writer.write(row);
+                writer.newLine();
+            }
+            System.out.println("Kernel benchmark written to " + options.outputPath);
+        } catch (IOException e) {
+            System.err.println("Error writing kernel benchmark to " + options.outputPath);
+            e.printStackTrace();
+        }
+    }
+
+    /*
+     * ns por passada: o menor de ROUNDS rodadas, a primeira descartada como aquecimento
+     */
+    private static double measure(Kernel kernel) {
+        long total = 0;
+        double best = Double.POSITIVE_INFINITY;
+        for (int round = 0; round < ROUNDS; round++) {
+            long passes = 0;
+            long start = System.nanoTime();
+            long elapsed;
+            do {
+                total += kernel.pass();
+                passes++;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < MIN_MILLIS * 1_000_000);
+            if (round > 0) {
+                best = Math.min(best, (double) elapsed / passes);
+            }
+        }
+        sink = total;
+        return best;
+    }
+}
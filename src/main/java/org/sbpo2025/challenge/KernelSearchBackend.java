@@ -0,0 +1,291 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPObjective;
+import com.google.ortools.linearsolver.MPVariable;
+
+/*
+ * Kernel search sobre os corredores. Os corredores sao ranqueados pela frequencia com
+ * que aparecem em construcoes gulosas com orcamentos de corredores variados (desempate
+ * pelas unidades demandadas que o corredor consegue cobrir); o kernel comeca com os
+ * corredores do incumbente e os primeiros do ranking, e o restante e dividido em
+ * buckets do tamanho do kernel. Cada subproblema e um MIP pequeno, montado do zero sobre
+ * a sub-instancia kernel + bucket, com so os pedidos que esses corredores cobrem, e
+ * objetivo de Dinkelbach com a razao r* do incumbente:
+ *   min r* sum c_a - sum units_o p_o,   sum units_o p_o - r* sum c_a >= EPSILON
+ * ou seja, so solucoes que melhoram o incumbente. Corredores do bucket usados numa
+ * solucao melhor entram no kernel.
+ */
+public class KernelSearchBackend implements SolverBackend {
+    private static final int MIN_KERNEL_AISLES = 10;
+    private static final int FREQUENCY_RUNS = 20;
+    private static final double EPSILON = 1e-4;
+
+    private final String solverId;
+    private SparseInstance instance;
+    private ItemCoverage coverage;
+    private boolean[] servable;
+    private int waveSizeLB;
+    private int waveSizeUB;
+    private CompactSolution hint;
+    private ReducedCostFixing fixing;
+
+    public KernelSearchBackend(String solverId) {
+        this.solverId = solverId;
+    }
+
+    @Override
+    public String name() {
+        return "kernel";
+    }
+
+    @Override
+    public void buildModel(SparseInstance instance, boolean[] servable, int waveSizeLB, int waveSizeUB) {
+        // Os MIPs sao montados por subproblema; aqui so o que e compartilhado entre eles
+        this.instance = instance;
+        this.coverage = new ItemCoverage(instance);
+        this.servable = servable;
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+    }
+
+    @Override
+    public void setHint(CompactSolution hint) {
+        this.hint = hint;
+    }
+
+    /*
+     * Pedidos fixados em 0 saem dos subproblemas; corredores fixados em 0 nao entram no
+     * kernel nem nos buckets, e os fixados em 1 comecam no kernel
+     */
+    @Override
+    public void fixVariables(ReducedCostFixing fixing) {
+        this.fixing = fixing;
+        this.servable = fixing.restrictServable(servable);
+    }
+
+    @Override
+    public CompactSolution solve(long timeLimitMillis, int numThreads, Incumbent incumbent) {
+        long deadline = System.currentTimeMillis() + timeLimitMillis;
+        if (incumbent == null) {
+            WaveState state = new WaveState(instance, waveSizeLB, waveSizeUB);
+            incumbent = new Incumbent(solution -> {
+                state.load(solution);
+                return state.isFeasible() ? state.ratio() : -1;
+            });
+        }
+        incumbent.offer(hint, "hint");
+
+        int nAisles = instance.nAisles();
+        int[] ranked = rankAisles(incumbent.best());
+        boolean[] inKernel = new boolean[nAisles];
+        int[] kernel = new int[nAisles];
+        int kernelSize = 0;
+        CompactSolution best = incumbent.best();
+        boolean[] closed = new boolean[nAisles];
+        for (int a = 0; a < nAisles && fixing != null; a++) {
+            closed[a] = fixing.aisleFixed(a) == 0;
+            if (fixing.aisleFixed(a) == 1) {
+                inKernel[a] = true;
+                kernel[kernelSize++] = a;
+            }
+        }
+        if (best != null) {
+            for (int k = 0; k < best.aisleCount(); k++) {
+                if (!inKernel[best.aisle(k)] && !closed[best.aisle(k)]) {
+                    inKernel[best.aisle(k)] = true;
+                    kernel[kernelSize++] = best.aisle(k);
+                }
+            }
+        }
+        int target = Math.min(nAisles, Math.max(MIN_KERNEL_AISLES, 2 * kernelSize));
+        int next = 0;
+        for (; next < nAisles && kernelSize < target; next++) {
+            if (!inKernel[ranked[next]] && !closed[ranked[next]]) {
+                inKernel[ranked[next]] = true;
+                kernel[kernelSize++] = ranked[next];
+            }
+        }
+
+        // Buckets: o resto do ranking em fatias do tamanho do kernel inicial
+        int bucketSize = Math.max(1, kernelSize);
+        int[] rest = new int[nAisles];
+        int nRest = 0;
+        for (int k = next; k < nAisles; k++) {
+            if (!inKernel[ranked[k]] && !closed[ranked[k]]) {
+                rest[nRest++] = ranked[k];
+            }
+        }
+        int nBuckets = (nRest + bucketSize - 1) / bucketSize;
+        System.out.printf("Kernel search: kernel %d aisles, %d buckets of %d%n", kernelSize, nBuckets, bucketSize);
+
+        int[] aisles = new int[nAisles];
+        for (int b = -1; b < nBuckets; b++) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                break;
+            }
+            System.arraycopy(kernel, 0, aisles, 0, kernelSize);
+            int n = kernelSize;
+            int bucketBegin = Math.max(b, 0) * bucketSize;
+            int bucketEnd = b < 0 ? 0 : Math.min(nRest, bucketBegin + bucketSize);
+            for (int k = bucketBegin; k < bucketEnd; k++) {
+                aisles[n++] = rest[k];
+            }
+            CompactSolution improved = solveRestricted(aisles, n, remaining / (nBuckets - b), numThreads, incumbent);
+            if (improved == null) {
+                continue;
+            }
+            for (int k = 0; k < improved.aisleCount(); k++) {
+                int aisle = improved.aisle(k);
+                if (!inKernel[aisle]) {
+                    inKernel[aisle] = true;
+                    kernel[kernelSize++] = aisle;
+                }
+            }
+        }
+        return incumbent.best();
+    }
+
+    /*
+     * Frequencia nas construcoes gulosas; desempate pelas unidades demandadas que o
+     * corredor cobre. Os corredores do incumbente vem primeiro.
+     */
+    private int[] rankAisles(CompactSolution best) {
+        int nAisles = instance.nAisles();
+        long[] frequency = new long[nAisles];
+        GreedyHeuristic greedy = new GreedyHeuristic(instance, servable, waveSizeLB, waveSizeUB);
+        count(frequency, greedy.run());
+        for (int r = 1; r <= FREQUENCY_RUNS; r++) {
+            count(frequency, greedy.runWithAisleBudget(Math.max(1, (int) ((long) nAisles * r * r
+                    / ((long) FREQUENCY_RUNS * FREQUENCY_RUNS * 4)))));
+        }
+
+        long[] demand = new long[instance.nItems()];
+        for (int o = 0; o < instance.nOrders(); o++) {
+            if (servable[o]) {
+                for (int k = instance.orderBegin(o); k < instance.orderEnd(o); k++) {
+                    demand[instance.orderItem(k)] += instance.orderQuantity(k);
+                }
+            }
+        }
+        double[] score = new double[nAisles];
+        for (int a = 0; a < nAisles; a++) {
+            long coverable = 0;
+            for (int k = instance.aisleBegin(a); k < instance.aisleEnd(a); k++) {
+                coverable += Math.min(instance.aisleQuantity(k), demand[instance.aisleItem(k)]);
+            }
+            boolean inBest = best != null && best.containsAisle(a);
+            score[a] = (inBest ? 1e18 : 0) + frequency[a] * 1e9 + coverable;
+        }
+        Integer[] order = new Integer[nAisles];
+        for (int a = 0; a < nAisles; a++) {
+            order[a] = a;
+        }
+        Arrays.sort(order, (x, y) -> Double.compare(score[y], score[x]));
+        int[] ranked = new int[nAisles];
+        for (int k = 0; k < nAisles; k++) {
+            ranked[k] = order[k];
+        }
+        return ranked;
+    }
+
+    private static void count(long[] frequency, CompactSolution solution) {
+        if (solution != null) {
+            for (int k = 0; k < solution.aisleCount(); k++) {
+                frequency[solution.aisle(k)]++;
+            }
+        }
+    }
+
+    /*
+     * MIP sobre a sub-instancia dos corredores dados e dos pedidos que eles cobrem,
+     * restrito a melhorar o incumbente. Retorna a solucao (em indices globais) se melhorou.
+     */
+    private CompactSolution solveRestricted(int[] aisles, int nAisles, long sliceMillis, int numThreads,
+                                            Incumbent incumbent) {
+        long[] mask = coverage.newMask();
+        for (int k = 0; k < nAisles; k++) {
+            coverage.addAisle(mask, aisles[k]);
+        }
+        int[] orders = new int[instance.nOrders()];
+        int nOrders = 0;
+        for (int o = 0; o < instance.nOrders(); o++) {
+            if (servable[o] && coverage.covers(mask, o)) {
+                orders[nOrders++] = o;
+            }
+        }
+        if (nOrders == 0) {
+            return null;
+        }
+        SparseInstance sub = instance.restrict(orders, nOrders, aisles, nAisles);
+        boolean[] subServable = new boolean[nOrders];
+        Arrays.fill(subServable, true);
+
+        MpSolverBackend backend = new MpSolverBackend(solverId, WaveModel.BuildMode.DIRECT, false);
+        try {
+            backend.buildModel(sub, subServable, waveSizeLB, waveSizeUB);
+            WaveModel model = backend.model();
+            MPVariable[] p = model.orderVariables();
+            MPVariable[] c = model.aisleVariables();
+            double ratio = Math.max(incumbent.bestValue(), 0);
+            if (ratio > 0) {
+                MPObjective objective = model.solver().objective();
+                MPConstraint improve = model.solver().makeConstraint(EPSILON, Double.POSITIVE_INFINITY, "improve");
+                for (MPVariable aisle : c) {
+                    objective.setCoefficient(aisle, ratio);
+                    improve.setCoefficient(aisle, -ratio);
+                }
+                for (int k = 0; k < nOrders; k++) {
+                    improve.setCoefficient(p[k], sub.orderUnits(k));
+                }
+            }
+            backend.setHint(localHint(incumbent.best(), orders, nOrders, aisles, nAisles));
+
+            CompactSolution local = backend.solve(sliceMillis, numThreads, null);
+            if (local == null) {
+                return null;
+            }
+            int[] globalOrders = new int[local.orderCount()];
+            for (int k = 0; k < globalOrders.length; k++) {
+                globalOrders[k] = orders[local.order(k)];
+            }
+            int[] globalAisles = new int[local.aisleCount()];
+            for (int k = 0; k < globalAisles.length; k++) {
+                globalAisles[k] = aisles[local.aisle(k)];
+            }
+            CompactSolution global = CompactSolution.of(globalOrders, globalAisles);
+            return incumbent.offer(global, name()) ? global : null;
+        } finally {
+            backend.close();
+        }
+    }
+
+    /*
+     * O incumbente em indices locais, se ele couber inteiro na sub-instancia
+     */
+    private static CompactSolution localHint(CompactSolution best, int[] orders, int nOrders,
+                                             int[] aisles, int nAisles) {
+        if (best == null) {
+            return null;
+        }
+        int[] localOrders = new int[best.orderCount()];
+        for (int k = 0; k < localOrders.length; k++) {
+            int local = Arrays.binarySearch(orders, 0, nOrders, best.order(k));
+            if (local < 0) {
+                return null;
+            }
+            localOrders[k] = local;
+        }
+        int[] localAisles = new int[best.aisleCount()];
+        int found = 0;
+        for (int k = 0; k < nAisles; k++) {
+            if (best.containsAisle(aisles[k])) {
+                localAisles[found++] = k;
+            }
+        }
+        return found == localAisles.length ? CompactSolution.of(localOrders, localAisles) : null;
+    }
+}
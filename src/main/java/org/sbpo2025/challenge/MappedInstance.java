@@ -0,0 +1,290 @@
+package org.sbpo2025.challenge;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntUnaryOperator;
+
+/*
+ * Instancia mapeada em memoria a partir do formato binario: os arrays CSR e o indice
+ * invertido ficam fora do heap (direct buffers), e o heap so guarda os 14 IntBuffer.
+ *
+ * Formato (int32 little-endian): cabecalho de HEADER_INTS inteiros (magic, versao, nItems,
+ * nOrders, nAisles, entradas de pedidos, entradas de corredores, LB, UB), seguido das
+ * secoes na ordem de SparseInstance: orderStart, orderItems, orderQuantities, orderUnits,
+ * aisleStart, aisleItems, aisleQuantities, aisleUnits, itemOrderStart, itemOrders,
+ * itemOrderQuantities, itemAisleStart, itemAisles, itemAisleQuantities.
+ */
+public final class MappedInstance extends SparseInstance {
+    static final int MAGIC = 0x4F504253; // "SBPO"
+    static final int VERSION = 1;
+    private static final int HEADER_INTS = 16;
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+    private final int nOrders;
+    private final int nAisles;
+    private final int waveSizeLB;
+    private final int waveSizeUB;
+    private final IntBuffer orderStart;
+    private final IntBuffer orderItems;
+    private final IntBuffer orderQuantities;
+    private final IntBuffer orderUnits;
+    private final IntBuffer aisleStart;
+    private final IntBuffer aisleItems;
+    private final IntBuffer aisleQuantities;
+    private final IntBuffer aisleUnits;
+    private final IntBuffer itemOrderStart;
+    private final IntBuffer itemOrders;
+    private final IntBuffer itemOrderQuantities;
+    private final IntBuffer itemAisleStart;
+    private final IntBuffer itemAisles;
+    private final IntBuffer itemAisleQuantities;
+
+    private MappedInstance(FileChannel channel, IntBuffer header) throws IOException {
+        super(header.get(2));
+        this.nOrders = header.get(3);
+        this.nAisles = header.get(4);
+        int orderEntries = header.get(5);
+        int aisleEntries = header.get(6);
+        this.waveSizeLB = header.get(7);
+        this.waveSizeUB = header.get(8);
+
+        // Cada secao e um mapeamento proprio, entao nenhuma passa do limite de 2 GB por buffer
+        long[] offset = {4L * HEADER_INTS};
+        this.orderStart = map(channel, offset, nOrders + 1);
+        this.orderItems = map(channel, offset, orderEntries);
+        this.orderQuantities = map(channel, offset, orderEntries);
+        this.orderUnits = map(channel, offset, nOrders);
+        this.aisleStart = map(channel, offset, nAisles + 1);
+        this.aisleItems = map(channel, offset, aisleEntries);
+        this.aisleQuantities = map(channel, offset, aisleEntries);
+        this.aisleUnits = map(channel, offset, nAisles);
+        this.itemOrderStart = map(channel, offset, nItems() + 1);
+        this.itemOrders = map(channel, offset, orderEntries);
+        this.itemOrderQuantities = map(channel, offset, orderEntries);
+        this.itemAisleStart = map(channel, offset, nItems() + 1);
+        this.itemAisles = map(channel, offset, aisleEntries);
+        this.itemAisleQuantities = map(channel, offset, aisleEntries);
+        if (offset[0] != channel.size()) {
+            throw new IOException("Binary instance has " + channel.size() + " bytes, expected " + offset[0]);
+        }
+    }
+
+    private static IntBuffer map(FileChannel channel, long[] offset, int length) throws IOException {
+        IntBuffer section = channel.map(FileChannel.MapMode.READ_ONLY, offset[0], 4L * length)
+                .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        offset[0] += 4L * length;
+        return section;
+    }
+
+    public static MappedInstance open(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            // O mapeamento continua valido depois que o canal e fechado
+            IntBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, 4L * HEADER_INTS)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            if (header.get(0) != MAGIC || header.get(1) != VERSION) {
+                throw new IOException("Not a binary instance (version " + VERSION + "): " + path);
+            }
+            return new MappedInstance(channel, header);
+        }
+    }
+
+    public static boolean isBinary(String path) {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            return channel.read(magic, 0) == 4 && magic.getInt(0) == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /*
+     * Grava qualquer SparseInstance no formato binario, lendo so pelos acessores. Escreve em
+     * <path>.tmp e move no fim, como o CheckpointWriter.
+     */
+    public static void write(SparseInstance instance, int waveSizeLB, int waveSizeUB, String path) throws IOException {
+        int nOrders = instance.nOrders();
+        int nAisles = instance.nAisles();
+        int nItems = instance.nItems();
+        int orderEntries = nOrders == 0 ? 0 : instance.orderEnd(nOrders - 1);
+        int aisleEntries = nAisles == 0 ? 0 : instance.aisleEnd(nAisles - 1);
+
+        Path target = Paths.get(path);
+        Path temporary = Paths.get(path + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            int[] header = {MAGIC, VERSION, nItems, nOrders, nAisles, orderEntries, aisleEntries, waveSizeLB, waveSizeUB};
+            writeSection(channel, buffer, HEADER_INTS, k -> k < header.length ? header[k] : 0);
+            writeSection(channel, buffer, nOrders + 1, instance::orderBegin);
+            writeSection(channel, buffer, orderEntries, instance::orderItem);
+            writeSection(channel, buffer, orderEntries, instance::orderQuantity);
+            writeSection(channel, buffer, nOrders, instance::orderUnits);
+            writeSection(channel, buffer, nAisles + 1, instance::aisleBegin);
+            writeSection(channel, buffer, aisleEntries, instance::aisleItem);
+            writeSection(channel, buffer, aisleEntries, instance::aisleQuantity);
+            writeSection(channel, buffer, nAisles, instance::aisleUnits);
+            writeSection(channel, buffer, nItems + 1, instance::itemOrderBegin);
+            writeSection(channel, buffer, orderEntries, instance::itemOrder);
+            writeSection(channel, buffer, orderEntries, instance::itemOrderQuantity);
+            writeSection(channel, buffer, nItems + 1, instance::itemAisleBegin);
+            writeSection(channel, buffer, aisleEntries, instance::itemAisle);
+            writeSection(channel, buffer, aisleEntries, instance::itemAisleQuantity);
+            flush(channel, buffer);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeSection(FileChannel channel, ByteBuffer buffer, int length, IntUnaryOperator value)
+            throws IOException {
+        for (int k = 0; k < length; k++) {
+            if (buffer.remaining() < 4) {
+                flush(channel, buffer);
+            }
+            buffer.putInt(value.applyAsInt(k));
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public int waveSizeLB() {
+        return waveSizeLB;
+    }
+
+    public int waveSizeUB() {
+        return waveSizeUB;
+    }
+
+    @Override
+    public int nOrders() {
+        return nOrders;
+    }
+
+    @Override
+    public int nAisles() {
+        return nAisles;
+    }
+
+    @Override
+    public int orderBegin(int order) {
+        return orderStart.get(order);
+    }
+
+    @Override
+    public int orderEnd(int order) {
+        return orderStart.get(order + 1);
+    }
+
+    @Override
+    public int orderItem(int k) {
+        return orderItems.get(k);
+    }
+
+    @Override
+    public int orderQuantity(int k) {
+        return orderQuantities.get(k);
+    }
+
+    @Override
+    public int orderUnits(int order) {
+        return orderUnits.get(order);
+    }
+
+    @Override
+    public int aisleBegin(int aisle) {
+        return aisleStart.get(aisle);
+    }
+
+    @Override
+    public int aisleEnd(int aisle) {
+        return aisleStart.get(aisle + 1);
+    }
+
+    @Override
+    public int aisleItem(int k) {
+        return aisleItems.get(k);
+    }
+
+    @Override
+    public int aisleQuantity(int k) {
+        return aisleQuantities.get(k);
+    }
+
+    @Override
+    int orderMinSlack(int[] slack, int order) {
+        return ItemKernels.minSlack(slack, orderItems, orderQuantities, orderBegin(order), orderEnd(order));
+    }
+
+    @Override
+    int addOrderRow(int[] slack, int order, int sign) {
+        return ItemKernels.addRow(slack, orderItems, orderQuantities, orderBegin(order), orderEnd(order), sign);
+    }
+
+    @Override
+    int aisleMinSlack(int[] slack, int aisle) {
+        return ItemKernels.minSlack(slack, aisleItems, aisleQuantities, aisleBegin(aisle), aisleEnd(aisle));
+    }
+
+    @Override
+    int addAisleRow(int[] slack, int aisle, int sign) {
+        return ItemKernels.addRow(slack, aisleItems, aisleQuantities, aisleBegin(aisle), aisleEnd(aisle), sign);
+    }
+
+    @Override
+    public int aisleUnits(int aisle) {
+        return aisleUnits.get(aisle);
+    }
+
+    @Override
+    public int itemOrderBegin(int item) {
+        return itemOrderStart.get(item);
+    }
+
+    @Override
+    public int itemOrderEnd(int item) {
+        return itemOrderStart.get(item + 1);
+    }
+
+    @Override
+    public int itemOrder(int k) {
+        return itemOrders.get(k);
+    }
+
+    @Override
+    public int itemOrderQuantity(int k) {
+        return itemOrderQuantities.get(k);
+    }
+
+    @Override
+    public int itemAisleBegin(int item) {
+        return itemAisleStart.get(item);
+    }
+
+    @Override
+    public int itemAisleEnd(int item) {
+        return itemAisleStart.get(item + 1);
+    }
+
+    @Override
+    public int itemAisle(int k) {
+        return itemAisles.get(k);
+    }
+
+    @Override
+    public int itemAisleQuantity(int k) {
+        return itemAisleQuantities.get(k);
+    }
+}
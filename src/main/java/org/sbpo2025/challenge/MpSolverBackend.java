@@ -0,0 +1,122 @@
+package org.sbpo2025.challenge;
+
+import com.google.ortools.linearsolver.MPSolver;
+import com.google.ortools.linearsolver.MPVariable;
+
+/*
+ * Backend sobre o MPSolver (SAT, SCIP, CBC, ...). O wrapper Java nao expoe callbacks de
+ * solucao intermediaria, entao o incumbent so e atualizado ao fim do solve.
+ */
+public class MpSolverBackend implements SolverBackend {
+    private final String solverId;
+    private final WaveModel.BuildMode buildMode;
+    private final boolean variableNames;
+    private boolean cuts = false;
+    private boolean symmetry = false;
+    private WaveModel model;
+
+    public MpSolverBackend(String solverId, WaveModel.BuildMode buildMode, boolean variableNames) {
+        this.solverId = solverId;
+        this.buildMode = buildMode;
+        this.variableNames = variableNames;
+    }
+
+    @Override
+    public String name() {
+        return solverId.toLowerCase();
+    }
+
+    /*
+     * Acrescenta os cortes de WaveCuts ao modelo logo depois de construido
+     */
+    public void setCuts(boolean cuts) {
+        this.cuts = cuts;
+    }
+
+    /*
+     * Restricoes de ordem entre corredores equivalentes/dominados (AisleSymmetry); o hint
+     * precisa estar na forma canonica
+     */
+    public void setSymmetry(boolean symmetry) {
+        this.symmetry = symmetry;
+    }
+
+    @Override
+    public void buildModel(SparseInstance instance, boolean[] servable, int waveSizeLB, int waveSizeUB) {
+        NativeLibraries.ensureLoaded();
+        MPSolver solver = MPSolver.createSolver(solverId);
+        if (solver == null) {
+            throw new IllegalStateException("Solver " + solverId + " is not available in this OR-Tools build");
+        }
+        model = WaveModel.build(solver, instance, servable, waveSizeLB, waveSizeUB, buildMode, variableNames);
+        if (cuts) {
+            WaveCuts.Stats stats = new WaveCuts(instance, servable, waveSizeLB, waveSizeUB).addTo(model);
+            System.out.println("Added " + stats);
+        }
+        if (symmetry) {
+            AisleSymmetry aisleSymmetry = new AisleSymmetry(instance, servable);
+            int rows = aisleSymmetry.addTo(model);
+            System.out.println(aisleSymmetry.describe() + ", " + rows + " ordering rows");
+        }
+    }
+
+    public WaveModel model() {
+        return model;
+    }
+
+    @Override
+    public void setHint(CompactSolution hint) {
+        if (hint == null) {
+            return;
+        }
+        MPVariable[] p = model.orderVariables();
+        MPVariable[] c = model.aisleVariables();
+        MPVariable[] variables = new MPVariable[p.length + c.length];
+        double[] values = new double[variables.length];
+        System.arraycopy(p, 0, variables, 0, p.length);
+        System.arraycopy(c, 0, variables, p.length, c.length);
+        for (int k = 0; k < hint.orderCount(); k++) {
+            values[hint.order(k)] = 1.0;
+        }
+        for (int k = 0; k < hint.aisleCount(); k++) {
+            values[p.length + hint.aisle(k)] = 1.0;
+        }
+        model.solver().setHint(variables, values);
+    }
+
+    @Override
+    public void fixVariables(ReducedCostFixing fixing) {
+        fixing.applyTo(model);
+    }
+
+    @Override
+    public CompactSolution solve(long timeLimitMillis, int numThreads, Incumbent incumbent) {
+        MPSolver solver = model.solver();
+        solver.setTimeLimit(Math.max(timeLimitMillis, 0)); // millisegundos
+        if (!solverId.equals("CBC")) {
+            // CBC nao aceita o parametro de threads do MPSolver
+            solver.setNumThreads(numThreads);
+        }
+
+        MPSolver.ResultStatus status = solver.solve();
+        if (status != MPSolver.ResultStatus.OPTIMAL && status != MPSolver.ResultStatus.FEASIBLE) {
+            System.out.println("Solver " + name() + " finished without a solution: " + status);
+            return null;
+        }
+        System.out.println("Solver found a solution: " + status);
+
+        CompactSolution solution = model.extractSolution();
+        if (incumbent != null) {
+            incumbent.offer(solution, name());
+        }
+        return solution;
+    }
+
+    @Override
+    public void close() {
+        if (model != null) {
+            model.solver().delete();
+            model = null;
+        }
+    }
+}
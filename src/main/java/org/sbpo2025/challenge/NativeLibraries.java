@@ -0,0 +1,41 @@
+package org.sbpo2025.challenge;
+
+import com.google.ortools.Loader;
+
+/*
+ * Carga preguicosa das bibliotecas nativas do OR-Tools (extrair do jar e carregar leva
+ * centenas de ms). Quem vai usar MPSolver ou CP-SAT chama ensureLoaded(); o main chama
+ * preload() antes da leitura da instancia para a extracao correr em paralelo com o parse.
+ * Caminhos que nao resolvem nada (--to-binary, --bench-parse, --bench-kernels) nunca
+ * carregam. Loader.loadNativeLibraries() e sincronizado e idempotente, entao esperar a
+ * carga em andamento e so chama-lo de novo.
+ */
+public final class NativeLibraries {
+    private static Thread preloader;
+
+    private NativeLibraries() {
+    }
+
+    public static synchronized void preload() {
+        if (preloader == null) {
+            preloader = new Thread(NativeLibraries::load, "ortools-loader");
+            preloader.setDaemon(true);
+            preloader.start();
+        }
+    }
+
+    public static void ensureLoaded() {
+        Loader.loadNativeLibraries();
+    }
+
+    private static void load() {
+        long start = System.nanoTime();
+        try {
+            Loader.loadNativeLibraries();
+            System.out.printf("OR-Tools natives loaded in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+        } catch (Throwable e) {
+            // ensureLoaded() tenta de novo e reporta o erro a quem precisar do solver
+            System.err.println("Background load of OR-Tools natives failed: " + e);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+
+import com.google.ortools.sat.BoolVar;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpSolver;
+import com.google.ortools.sat.CpSolverStatus;
+import com.google.ortools.sat.LinearExpr;
+import com.google.ortools.sat.LinearExprBuilder;
+
+/*
+ * Subproblema de empacotamento: com os corredores fixos (bitset), quais pedidos escolher
+ * para maximizar as unidades respeitando o estoque de cada item e os limites da wave
+ * (mochila multidimensional).
+ *
+ * pack(): gulosa por eficiencia no item mais escasso (unidades / max_i q_i / estoque_i)
+ * seguida de trocas 1-1 que aumentam as unidades (sai um pedido escolhido que disputa o
+ * item bloqueante, entra um maior). Os buffers de trabalho sao alocados no construtor e
+ * reaproveitados; nao e thread-safe.
+ *
+ * packExact(): a mesma mochila no CP-SAT sobre os pedidos candidatos, com a gulosa como
+ * hint e limite de tempo curto.
+ */
+public class OrderPacking {
+    private static final int EXCHANGE_PASSES = 2;
+
+    private final SparseInstance instance;
+    private final boolean[] servable;
+    private final int waveSizeLB;
+    private final int waveSizeUB;
+
+    // Por item: estoque dos corredores do bitset e quanto ainda sobra
+    private final int[] stock;
+    private final int[] slack;
+    private final int[] touched;
+    private int nTouched;
+
+    // Por pedido: carimbo de candidato/escolhido e chave de ordenacao (eficiencia, pedido)
+    private final int[] candidateStamp;
+    private final int[] selectedStamp;
+    private final int[] candidates;
+    private final long[] keys;
+    private int nCandidates;
+    private int epoch;
+    private long units;
+
+    public OrderPacking(SparseInstance instance, boolean[] servable, int waveSizeLB, int waveSizeUB) {
+        this.instance = instance;
+        this.servable = servable;
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+        this.stock = new int[instance.nItems()];
+        this.slack = new int[instance.nItems()];
+        this.touched = new int[instance.nItems()];
+        this.candidateStamp = new int[instance.nOrders()];
+        this.selectedStamp = new int[instance.nOrders()];
+        this.candidates = new int[instance.nOrders()];
+        this.keys = new long[instance.nOrders()];
+    }
+
+    public static long[] newAisleSet(int nAisles) {
+        return new long[(nAisles + 63) >>> 6];
+    }
+
+    public static void addAisle(long[] aisleSet, int aisle) {
+        aisleSet[aisle >>> 6] |= 1L << aisle;
+    }
+
+    public static long[] aisleSet(CompactSolution wave, int nAisles) {
+        long[] aisleSet = newAisleSet(nAisles);
+        for (int k = 0; k < wave.aisleCount(); k++) {
+            addAisle(aisleSet, wave.aisle(k));
+        }
+        return aisleSet;
+    }
+
+    /*
+     * Unidades do ultimo empacotamento (abaixo do LB, a wave nao e viavel)
+     */
+    public long units() {
+        return units;
+    }
+
+    /*
+     * Escreve em orders os pedidos escolhidos e retorna quantos sao
+     */
+    public int pack(long[] aisleSet, int[] orders) {
+        loadCandidates(aisleSet);
+
+        // Gulosa por eficiencia decrescente
+        units = 0;
+        int nSelected = 0;
+        for (int j = nCandidates - 1; j >= 0 && units < waveSizeUB; j--) {
+            int order = (int) keys[j];
+            if (units + instance.orderUnits(order) <= waveSizeUB && fits(order)) {
+                select(order);
+                orders[nSelected++] = order;
+            }
+        }
+
+        // Trocas 1-1: um candidato de fora entra no lugar de um escolhido menor que disputa o
+        // primeiro item bloqueante
+        for (int pass = 0; pass < EXCHANGE_PASSES; pass++) {
+            boolean improved = false;
+            for (int j = nCandidates - 1; j >= 0; j--) {
+                int in = (int) keys[j];
+                if (selectedStamp[in] == epoch) {
+                    continue;
+                }
+                int blocking = blockingItem(in);
+                if (blocking < 0) {
+                    if (units + instance.orderUnits(in) <= waveSizeUB) {
+                        select(in);
+                        orders[nSelected++] = in;
+                        improved = true;
+                    }
+                    continue;
+                }
+                for (int k = instance.itemOrderBegin(blocking); k < instance.itemOrderEnd(blocking); k++) {
+                    int out = instance.itemOrder(k);
+                    if (selectedStamp[out] != epoch || instance.orderUnits(out) >= instance.orderUnits(in)
+                            || units - instance.orderUnits(out) + instance.orderUnits(in) > waveSizeUB) {
+                        continue;
+                    }
+                    deselect(out);
+                    if (fits(in)) {
+                        select(in);
+                        replace(orders, nSelected, out, in);
+                        improved = true;
+                        break;
+                    }
+                    select(out);
+                }
+            }
+            if (!improved) {
+                break;
+            }
+        }
+        reset();
+        return nSelected;
+    }
+
+    /*
+     * Candidatos: pedidos atendiveis que o estoque dos corredores do bitset comporta
+     * sozinhos, ordenados por eficiencia no item mais escasso
+     */
+    private void loadCandidates(long[] aisleSet) {
+        epoch++;
+        nTouched = 0;
+        for (int w = 0; w < aisleSet.length; w++) {
+            for (long word = aisleSet[w]; word != 0; word &= word - 1) {
+                int aisle = (w << 6) | Long.numberOfTrailingZeros(word);
+                for (int k = instance.aisleBegin(aisle); k < instance.aisleEnd(aisle); k++) {
+                    int item = instance.aisleItem(k);
+                    if (stock[item] == 0) {
+                        touched[nTouched++] = item;
+                    }
+                    stock[item] += instance.aisleQuantity(k);
+                }
+            }
+        }
+        nCandidates = 0;
+        for (int t = 0; t < nTouched; t++) {
+            int item = touched[t];
+            slack[item] = stock[item];
+            for (int k = instance.itemOrderBegin(item); k < instance.itemOrderEnd(item); k++) {
+                int order = instance.itemOrder(k);
+                if (candidateStamp[order] == epoch || !servable[order]) {
+                    continue;
+                }
+                candidateStamp[order] = epoch;
+                double scarcest = 0;
+                for (int j = instance.orderBegin(order); j < instance.orderEnd(order) && scarcest <= 1; j++) {
+                    int available = stock[instance.orderItem(j)];
+                    scarcest = available == 0 ? 2 : Math.max(scarcest, (double) instance.orderQuantity(j) / available);
+                }
+                if (scarcest <= 1 && instance.orderUnits(order) <= waveSizeUB) {
+                    // Bits de um float positivo crescem com o valor, entao a chave ordena por eficiencia
+                    float efficiency = (float) (instance.orderUnits(order) / scarcest);
+                    candidates[nCandidates] = order;
+                    keys[nCandidates++] = ((long) Float.floatToIntBits(efficiency) << 32) | order;
+                }
+            }
+        }
+        Arrays.sort(keys, 0, nCandidates);
+    }
+
+    private boolean fits(int order) {
+        return blockingItem(order) < 0;
+    }
+
+    private int blockingItem(int order) {
+        for (int k = instance.orderBegin(order); k < instance.orderEnd(order); k++) {
+            if (slack[instance.orderItem(k)] < instance.orderQuantity(k)) {
+                return instance.orderItem(k);
+            }
+        }
+        return -1;
+    }
+
+    private void select(int order) {
+        selectedStamp[order] = epoch;
+        units += instance.orderUnits(order);
+        for (int k = instance.orderBegin(order); k < instance.orderEnd(order); k++) {
+            slack[instance.orderItem(k)] -= instance.orderQuantity(k);
+        }
+    }
+
+    private void deselect(int order) {
+        selectedStamp[order] = 0;
+        units -= instance.orderUnits(order);
+        for (int k = instance.orderBegin(order); k < instance.orderEnd(order); k++) {
+            slack[instance.orderItem(k)] += instance.orderQuantity(k);
+        }
+    }
+
+    private static void replace(int[] orders, int n, int out, int in) {
+        for (int k = 0; k < n; k++) {
+            if (orders[k] == out) {
+                orders[k] = in;
+                return;
+            }
+        }
+    }
+
+    private void reset() {
+        for (int t = 0; t < nTouched; t++) {
+            stock[touched[t]] = 0;
+            slack[touched[t]] = 0;
+        }
+    }
+
+    /*
+     * Empacotamento otimo (ou o melhor no limite de tempo) pelo CP-SAT, partindo da gulosa.
+     * Aloca o modelo a cada chamada.
+     */
+    public int packExact(long[] aisleSet, int[] orders, long timeLimitMillis) {
+        int greedy = pack(aisleSet, orders);
+        long greedyUnits = units;
+        // A gulosa so serve de referencia se for viavel (abaixo do LB qualquer solucao ganha)
+        long baseline = greedyUnits >= waveSizeLB && greedyUnits <= waveSizeUB ? greedyUnits : -1;
+        loadCandidates(aisleSet);
+        if (nCandidates == 0) {
+            reset();
+            return greedy;
+        }
+        for (int j = 0; j < greedy; j++) {
+            selectedStamp[orders[j]] = epoch;
+        }
+
+        NativeLibraries.ensureLoaded();
+        CpModel model = new CpModel();
+        BoolVar[] p = new BoolVar[nCandidates];
+        int[] index = new int[instance.nOrders()];
+        LinearExprBuilder total = LinearExpr.newBuilder();
+        for (int j = 0; j < nCandidates; j++) {
+            p[j] = model.newBoolVar("");
+            index[candidates[j]] = j;
+            total.addTerm(p[j], instance.orderUnits(candidates[j]));
+            model.addHint(p[j], selectedStamp[candidates[j]] == epoch ? 1 : 0);
+        }
+        for (int t = 0; t < nTouched; t++) {
+            int item = touched[t];
+            LinearExprBuilder row = LinearExpr.newBuilder();
+            boolean demanded = false;
+            for (int k = instance.itemOrderBegin(item); k < instance.itemOrderEnd(item); k++) {
+                int order = instance.itemOrder(k);
+                if (candidateStamp[order] == epoch && isCandidate(order, index)) {
+                    row.addTerm(p[index[order]], instance.itemOrderQuantity(k));
+                    demanded = true;
+                }
+            }
+            if (demanded) {
+                model.addLessOrEqual(row, stock[item]);
+            }
+        }
+        reset();
+        model.addLinearConstraint(total, Math.max(waveSizeLB, 1), waveSizeUB);
+        model.maximize(total);
+
+        CpSolver solver = new CpSolver();
+        solver.getParameters().setMaxTimeInSeconds(Math.max(timeLimitMillis, 1) / 1000.0).setNumWorkers(1);
+        CpSolverStatus status = solver.solve(model);
+        if ((status != CpSolverStatus.OPTIMAL && status != CpSolverStatus.FEASIBLE)
+                || solver.objectiveValue() <= baseline) {
+            units = greedyUnits;
+            return greedy;
+        }
+        int nSelected = 0;
+        for (int j = 0; j < nCandidates; j++) {
+            if (solver.booleanValue(p[j])) {
+                orders[nSelected++] = candidates[j];
+            }
+        }
+        units = (long) solver.objectiveValue();
+        return nSelected;
+    }
+
+    private boolean isCandidate(int order, int[] index) {
+        int j = index[order];
+        return j < nCandidates && candidates[j] == order;
+    }
+}
@@ -0,0 +1,308 @@
+package org.sbpo2025.challenge;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/*
+ * Leitura paralela do formato texto direto para CSR. O arquivo e mapeado em memoria e
+ * dividido em blocos que comecam sempre no inicio de uma linha; cada bloco acha as suas
+ * linhas em paralelo, a contagem de entradas de cada linha de pedido/corredor vira o
+ * orderStart/aisleStart por soma de prefixos, e as linhas sao lidas em paralelo direto
+ * na sua faixa do CSR. O resultado e identico ao de new SparseInstance(orders, aisles,
+ * nItems) sobre a leitura sequencial, inclusive quando um item se repete na linha (vale
+ * a ultima quantidade, como no HashMap).
+ */
+public class ParallelInstanceParser {
+    public record Result(SparseInstance instance, int waveSizeLB, int waveSizeUB) {
+    }
+
+    private static final int MIN_CHUNK_BYTES = 1 << 16;
+    private static final int ROWS_PER_TASK = 1024;
+
+    private final int parallelism;
+
+    public ParallelInstanceParser(int parallelism) {
+        this.parallelism = Math.max(parallelism, 1);
+    }
+
+    public Result parse(String path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return parse(buffer, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Result parse(MappedByteBuffer buffer, ForkJoinPool pool) throws IOException {
+        int size = buffer.limit();
+        Cursor header = new Cursor(buffer, 0, lineEnd(buffer, 0, size));
+        int nOrders = header.nextInt();
+        int nItems = header.nextInt();
+        int nAisles = header.nextInt();
+        int bodyStart = Math.min(header.end + 1, size);
+
+        int[] lineStart = findLines(buffer, bodyStart, size, pool);
+        if (lineStart.length < nOrders + nAisles + 1) {
+            throw new IOException("Expected " + (nOrders + nAisles + 1) + " lines after the header, found "
+                    + lineStart.length);
+        }
+
+        int[] orderStart = new int[nOrders + 1];
+        int[] aisleStart = new int[nAisles + 1];
+        int[][] order = parseRows(buffer, size, lineStart, 0, nOrders, nItems, orderStart, pool);
+        int[][] aisle = parseRows(buffer, size, lineStart, nOrders, nAisles, nItems, aisleStart, pool);
+
+        int boundsLine = nOrders + nAisles;
+        Cursor bounds = new Cursor(buffer, lineStart[boundsLine], lineEnd(buffer, lineStart[boundsLine], size));
+        int waveSizeLB = bounds.nextInt();
+        int waveSizeUB = bounds.nextInt();
+        SparseInstance instance = new SparseInstance(nItems, orderStart, order[0], order[1],
+                aisleStart, aisle[0], aisle[1]);
+        return new Result(instance, waveSizeLB, waveSizeUB);
+    }
+
+    /*
+     * Inicio de cada linha a partir de from: cada bloco conta as suas linhas, a soma de
+     * prefixos da a posicao de cada bloco e uma segunda passada grava os inicios
+     */
+    private int[] findLines(MappedByteBuffer buffer, int from, int size, ForkJoinPool pool) throws IOException {
+        int nChunks = (int) Math.max(1, Math.min(4L * parallelism, (size - from) / MIN_CHUNK_BYTES));
+        int[] chunkStart = new int[nChunks + 1];
+        chunkStart[0] = from;
+        for (int c = 1; c < nChunks; c++) {
+            int nominal = Math.max(chunkStart[c - 1], from + (int) ((long) (size - from) * c / nChunks));
+            chunkStart[c] = Math.min(lineEnd(buffer, nominal, size) + 1, size);
+        }
+        chunkStart[nChunks] = size;
+
+        int[] linesBefore = new int[nChunks + 1];
+        run(pool, nChunks, c -> linesBefore[c + 1] = scanLines(buffer, chunkStart[c], chunkStart[c + 1], null, 0));
+        for (int c = 0; c < nChunks; c++) {
+            linesBefore[c + 1] += linesBefore[c];
+        }
+        int[] lineStart = new int[linesBefore[nChunks]];
+        run(pool, nChunks, c -> scanLines(buffer, chunkStart[c], chunkStart[c + 1], lineStart, linesBefore[c]));
+        return lineStart;
+    }
+
+    private static int scanLines(MappedByteBuffer buffer, int begin, int end, int[] lineStart, int offset) {
+        int count = 0;
+        int position = begin;
+        while (position < end) {
+            if (lineStart != null) {
+                lineStart[offset + count] = position;
+            }
+            count++;
+            position = lineEnd(buffer, position, end) + 1;
+        }
+        return count;
+    }
+
+    /*
+     * Le as linhas [first, first + nRows) como linhas de pedido/corredor. Primeiro a
+     * contagem de cada linha (soma de prefixos em start), depois os pares em paralelo,
+     * cada linha ordenada por item. Se houve item repetido, compacta no fim.
+     */
+    private int[][] parseRows(MappedByteBuffer buffer, int size, int[] lineStart, int first, int nRows, int nItems,
+                              int[] start, ForkJoinPool pool) throws IOException {
+        int nTasks = (nRows + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+        run(pool, nTasks, t -> {
+            for (int r = t * ROWS_PER_TASK; r < Math.min(nRows, (t + 1) * ROWS_PER_TASK); r++) {
+                int line = lineStart[first + r];
+                start[r + 1] = new Cursor(buffer, line, lineEnd(buffer, line, size)).nextInt();
+            }
+        });
+        for (int r = 0; r < nRows; r++) {
+            start[r + 1] += start[r];
+        }
+
+        int[] items = new int[start[nRows]];
+        int[] quantities = new int[items.length];
+        int[] kept = new int[nRows];
+        run(pool, nTasks, t -> {
+            long[] scratch = new long[0];
+            for (int r = t * ROWS_PER_TASK; r < Math.min(nRows, (t + 1) * ROWS_PER_TASK); r++) {
+                int line = lineStart[first + r];
+                Cursor cursor = new Cursor(buffer, line, lineEnd(buffer, line, size));
+                int length = cursor.nextInt();
+                int begin = start[r];
+                for (int k = 0; k < length; k++) {
+                    int item = cursor.nextInt();
+                    if (item < 0 || item >= nItems) {
+                        throw new IllegalArgumentException("Item " + item + " out of range on line " + (first + r + 2));
+                    }
+                    items[begin + k] = item;
+                    quantities[begin + k] = cursor.nextInt();
+                }
+                if (scratch.length < length) {
+                    scratch = new long[Math.max(length, 2 * scratch.length)];
+                }
+                kept[r] = sortRow(items, quantities, begin, length, scratch);
+            }
+        });
+
+        int total = 0;
+        for (int r = 0; r < nRows; r++) {
+            total += kept[r];
+        }
+        if (total == items.length) {
+            return new int[][] {items, quantities};
+        }
+        int[] compactItems = new int[total];
+        int[] compactQuantities = new int[total];
+        int k = 0;
+        for (int r = 0; r < nRows; r++) {
+            System.arraycopy(items, start[r], compactItems, k, kept[r]);
+            System.arraycopy(quantities, start[r], compactQuantities, k, kept[r]);
+            start[r] = k;
+            k += kept[r];
+        }
+        start[nRows] = k;
+        return new int[][] {compactItems, compactQuantities};
+    }
+
+    /*
+     * Ordena a linha por item (desempate pela posicao) e mantem so a ultima ocorrencia de
+     * cada item. Retorna quantas entradas ficaram.
+     */
+    private static int sortRow(int[] items, int[] quantities, int begin, int length, long[] scratch) {
+        boolean sorted = true;
+        for (int k = 1; k < length && sorted; k++) {
+            sorted = items[begin + k - 1] < items[begin + k];
+        }
+        if (sorted) {
+            return length;
+        }
+        for (int k = 0; k < length; k++) {
+            scratch[k] = ((long) items[begin + k] << 32) | k;
+        }
+        Arrays.sort(scratch, 0, length);
+        int[] rowQuantities = Arrays.copyOfRange(quantities, begin, begin + length);
+        int kept = 0;
+        for (int k = 0; k < length; k++) {
+            int item = (int) (scratch[k] >>> 32);
+            if (k + 1 < length && (int) (scratch[k + 1] >>> 32) == item) {
+                continue;
+            }
+            items[begin + kept] = item;
+            quantities[begin + kept] = rowQuantities[(int) scratch[k]];
+            kept++;
+        }
+        return kept;
+    }
+
+    /*
+     * Compara duas instancias pelos acessores (usado pelo --bench-parse)
+     */
+    static boolean sameContent(SparseInstance a, SparseInstance b) {
+        if (a.nItems() != b.nItems() || a.nOrders() != b.nOrders() || a.nAisles() != b.nAisles()) {
+            return false;
+        }
+        for (int o = 0; o <= a.nOrders(); o++) {
+            if (a.orderBegin(o) != b.orderBegin(o)) {
+                return false;
+            }
+        }
+        for (int k = 0; k < a.orderBegin(a.nOrders()); k++) {
+            if (a.orderItem(k) != b.orderItem(k) || a.orderQuantity(k) != b.orderQuantity(k)
+                    || a.itemOrder(k) != b.itemOrder(k) || a.itemOrderQuantity(k) != b.itemOrderQuantity(k)) {
+                return false;
+            }
+        }
+        for (int aisle = 0; aisle <= a.nAisles(); aisle++) {
+            if (a.aisleBegin(aisle) != b.aisleBegin(aisle)) {
+                return false;
+            }
+        }
+        for (int k = 0; k < a.aisleBegin(a.nAisles()); k++) {
+            if (a.aisleItem(k) != b.aisleItem(k) || a.aisleQuantity(k) != b.aisleQuantity(k)
+                    || a.itemAisle(k) != b.itemAisle(k) || a.itemAisleQuantity(k) != b.itemAisleQuantity(k)) {
+                return false;
+            }
+        }
+        for (int i = 0; i <= a.nItems(); i++) {
+            if (a.itemOrderBegin(i) != b.itemOrderBegin(i) || a.itemAisleBegin(i) != b.itemAisleBegin(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int lineEnd(MappedByteBuffer buffer, int position, int limit) {
+        while (position < limit && buffer.get(position) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    private static void run(ForkJoinPool pool, int nTasks, IntConsumer task) throws IOException {
+        List<Callable<Void>> tasks = new ArrayList<>(nTasks);
+        for (int t = 0; t < nTasks; t++) {
+            int index = t;
+            tasks.add(() -> {
+                task.accept(index);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Parsing interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Malformed instance: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /*
+     * Leitor de inteiros nao negativos separados por espaco dentro de [position, end)
+     */
+    private static final class Cursor {
+        private final MappedByteBuffer buffer;
+        private int position;
+        private final int end;
+
+        Cursor(MappedByteBuffer buffer, int position, int end) {
+            this.buffer = buffer;
+            this.position = position;
+            this.end = end;
+        }
+
+        int nextInt() {
+            while (position < end && buffer.get(position) <= ' ') {
+                position++;
+            }
+            if (position >= end) {
+                throw new IllegalArgumentException("Missing number at byte " + position);
+            }
+            int value = 0;
+            byte b;
+            while (position < end && (b = buffer.get(position)) > ' ') {
+                if (b < '0' || b > '9') {
+                    throw new IllegalArgumentException("Unexpected character '" + (char) b + "' at byte " + position);
+                }
+                value = value * 10 + (b - '0');
+                position++;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPObjective;
+import com.google.ortools.linearsolver.MPVariable;
+
+/*
+ * Fronteira de Pareto (corredores x unidades) por epsilon-restricao: para cada orcamento
+ * de k corredores, maximiza as unidades com sum c_a <= k. O presolve (pedidos atendiveis)
+ * e feito uma vez e compartilhado. Os orcamentos sao intercalados entre os workers
+ * (k = w, w + W, ...), cada worker com o seu modelo, e cada k parte da solucao do k
+ * anterior do mesmo worker, que continua viavel. Quando algum k atinge o UB, os
+ * orcamentos maiores sao dominados e deixam de ser resolvidos.
+ */
+public class ParetoFrontier {
+    public record Point(int aisles, long units, CompactSolution wave) {
+    }
+
+    private final SparseInstance instance;
+    private final boolean[] servable;
+    private final int waveSizeLB;
+    private final int waveSizeUB;
+    private final String solverId;
+    private final int workers;
+    private int minAisles;
+
+    public ParetoFrontier(SparseInstance instance, boolean[] servable, int waveSizeLB, int waveSizeUB,
+                          String solverId, int workers) {
+        this.instance = instance;
+        this.servable = servable;
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+        this.solverId = solverId;
+        this.workers = Math.max(1, Math.min(workers, instance.nAisles()));
+    }
+
+    public List<Point> run(long timeLimitMillis) {
+        long deadline = System.currentTimeMillis() + timeLimitMillis;
+        Point[] best = new Point[instance.nAisles() + 1];
+        AtomicInteger saturatedAt = new AtomicInteger(Integer.MAX_VALUE);
+        minAisles = minimumAisles();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int w = 0; w < workers; w++) {
+                int first = w + 1;
+                futures.add(executor.submit(() -> sweepBudgets(first, best, saturatedAt, deadline)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    System.err.println("Frontier worker failed");
+                    e.getCause().printStackTrace();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Mantem so os pontos nao dominados: unidades estritamente crescentes com os corredores
+        List<Point> frontier = new ArrayList<>();
+        long bestUnits = 0;
+        for (int k = 1; k < best.length; k++) {
+            Point point = best[k];
+            if (point != null && point.units() > bestUnits) {
+                frontier.add(point);
+                bestUnits = point.units();
+            }
+        }
+        return frontier;
+    }
+
+    /*
+     * Menor k cujos k maiores corredores somam pelo menos LB unidades; abaixo disso nenhum
+     * orcamento e viavel
+     */
+    private int minimumAisles() {
+        int[] aisles = GreedyHeuristic.aislesByUnits(instance);
+        long units = 0;
+        for (int k = 0; k < aisles.length; k++) {
+            units += instance.aisleUnits(aisles[k]);
+            if (units >= waveSizeLB) {
+                return k + 1;
+            }
+        }
+        return aisles.length + 1;
+    }
+
+    private void sweepBudgets(int first, Point[] best, AtomicInteger saturatedAt, long deadline) {
+        MpSolverBackend backend = new MpSolverBackend(solverId, WaveModel.BuildMode.DIRECT, false);
+        try {
+            backend.buildModel(instance, servable, waveSizeLB, waveSizeUB);
+            WaveModel model = backend.model();
+            MPVariable[] p = model.orderVariables();
+            MPVariable[] c = model.aisleVariables();
+
+            // Objetivo de unidades, escalado por (m + 1) para que o peso unitario dos corredores
+            // (que so evita abrir corredores inuteis) nunca compense uma unidade
+            MPObjective objective = model.solver().objective();
+            for (int o = 0; o < p.length; o++) {
+                objective.setCoefficient(p[o], -(double) instance.orderUnits(o) * (c.length + 1));
+            }
+            for (MPVariable aisle : c) {
+                objective.setCoefficient(aisle, 1);
+            }
+            MPConstraint budget = model.solver().makeConstraint(0, 0, "aisleBudget");
+            for (MPVariable aisle : c) {
+                budget.setCoefficient(aisle, 1);
+            }
+
+            WaveState state = new WaveState(instance, waveSizeLB, waveSizeUB);
+            WavePolisher polisher = new WavePolisher(instance, servable, waveSizeLB, waveSizeUB);
+            GreedyHeuristic greedy = new GreedyHeuristic(instance, servable, waveSizeLB, waveSizeUB);
+            CompactSolution previous = null;
+            int budgets = (instance.nAisles() - first) / workers + 1;
+            for (int k = first, step = 0; k <= instance.nAisles(); k += workers, step++) {
+                if (k < minAisles) {
+                    continue;
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0 || k > saturatedAt.get()) {
+                    break;
+                }
+                budget.setBounds(0, k);
+
+                int budgetK = k;
+                Incumbent incumbent = new Incumbent(solution -> {
+                    synchronized (state) {
+                        state.load(solution);
+                        return state.isFeasible() && state.aisleCount() <= budgetK ? state.units() : -1;
+                    }
+                });
+                incumbent.offer(previous, "previous");
+                incumbent.offer(greedy.runWithAisleBudget(k), "greedy");
+                backend.setHint(incumbent.best());
+                backend.solve(remaining / (budgets - step), 1, incumbent);
+
+                CompactSolution wave = incumbent.best();
+                if (wave == null) {
+                    continue;
+                }
+                // So fecha corredores: as unidades ficam e o ponto cabe no orcamento k
+                wave = polisher.trim(wave);
+                previous = wave;
+                long units = (long) incumbent.bestValue();
+                synchronized (best) {
+                    int aisles = wave.aisleCount();
+                    if (best[aisles] == null || best[aisles].units() < units) {
+                        best[aisles] = new Point(aisles, units, wave);
+                    }
+                }
+                if (units >= waveSizeUB) {
+                    saturatedAt.accumulateAndGet(k, Math::min);
+                }
+            }
+        } finally {
+            backend.close();
+        }
+    }
+}
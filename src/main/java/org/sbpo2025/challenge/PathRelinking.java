@@ -0,0 +1,257 @@
+package org.sbpo2025.challenge;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/*
+ * Path relinking entre as waves da ElitePool do incumbente. Partindo da wave inicial, cada
+ * passo abre um corredor da wave guia que falta ou fecha um que a guia nao tem, escolhendo
+ * o melhor de uma amostra dos movimentos restantes; depois de cada movimento os pedidos
+ * sao reempacotados como na TabuSearch (WaveState + gulosa por densidade). A melhor wave
+ * intermediaria do caminho (sem as pontas) e oferecida ao incumbente, que a reduz e a
+ * devolve para a pool. Os pares vao dos melhores para os piores, nos dois sentidos, cada
+ * um uma vez; sem pares novos o worker termina e libera o nucleo. Com a pool pequena,
+ * construcoes gulosas com orcamentos de corredores diferentes servem de semente.
+ */
+public class PathRelinking implements SearchWorker {
+    private static final long SEED = 20250611L;
+    private static final int SEED_RUNS = 6;
+
+    private final SparseInstance instance;
+    private final boolean[] servable;
+    private final int waveSizeLB;
+    private final int waveSizeUB;
+    private final WaveState state;
+    private final int[] priority;
+    private final int sample;
+    private final SplittableRandom random = new SplittableRandom(SEED);
+
+    // Pedidos na solucao corrente e copia para desfazer a avaliacao de um movimento
+    private final int[] packed;
+    private int nPacked;
+    private final int[] saved;
+    private int nSaved;
+
+    // Par (origem, guia) ja relinkado; igualdade pelo conteudo das waves, sem colisao de hash
+    private record Pair(CompactSolution from, CompactSolution to) {
+    }
+
+    // Movimentos restantes do caminho: corredor >= 0 abre, ~corredor fecha
+    private final int[] moves;
+    private int nMoves;
+
+    public PathRelinking(SparseInstance instance, boolean[] servable, int waveSizeLB, int waveSizeUB) {
+        this.instance = instance;
+        this.servable = servable;
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+        this.state = new WaveState(instance, waveSizeLB, waveSizeUB);
+        this.priority = TabuSearch.densityOrder(instance, servable);
+        this.packed = new int[priority.length];
+        this.saved = new int[priority.length];
+        this.moves = new int[instance.nAisles()];
+        this.sample = Math.max(8, (int) Math.sqrt(instance.nAisles()));
+    }
+
+    @Override
+    public String name() {
+        return "relink";
+    }
+
+    @Override
+    public void run(long timeLimitMillis, Incumbent incumbent) {
+        long deadline = System.currentTimeMillis() + timeLimitMillis;
+        if (priority.length == 0) {
+            return;
+        }
+        ElitePool pool = incumbent.pool() != null ? incumbent.pool() : new ElitePool(instance.nAisles());
+        if (incumbent.best() != null) {
+            pool.add(incumbent.best(), incumbent.bestValue());
+        }
+        seed(pool, incumbent);
+
+        Set<Pair> tried = new HashSet<>();
+        int paths = 0;
+        int improvements = 0;
+        while (System.currentTimeMillis() < deadline) {
+            List<CompactSolution> elite = pool.snapshot();
+            CompactSolution from = null;
+            CompactSolution to = null;
+            // Pares pela soma das posicoes: os das melhores waves primeiro
+            for (int sum = 1; sum <= 2 * elite.size() - 3 && from == null; sum++) {
+                for (int i = Math.max(0, sum - elite.size() + 1); 2 * i < sum && from == null; i++) {
+                    CompactSolution better = elite.get(i);
+                    CompactSolution worse = elite.get(sum - i);
+                    if (tried.add(new Pair(worse, better))) {
+                        from = worse;
+                        to = better;
+                    } else if (tried.add(new Pair(better, worse))) {
+                        from = better;
+                        to = worse;
+                    }
+                }
+            }
+            if (from == null) {
+                break;
+            }
+            CompactSolution result = relink(from, to, deadline);
+            paths++;
+            if (result != null) {
+                pool.add(result, state.ratio());
+                if (incumbent.offer(result, name())) {
+                    improvements++;
+                }
+            }
+        }
+        System.out.printf("Path relinking: %d paths, %d improvements, %s%n", paths, improvements, pool.describe());
+    }
+
+    /*
+     * Construcoes gulosas com 1/12, 2/12, ... ate metade dos corredores, enquanto a pool
+     * tiver poucas waves
+     */
+    private void seed(ElitePool pool, Incumbent incumbent) {
+        GreedyHeuristic greedy = new GreedyHeuristic(instance, servable, waveSizeLB, waveSizeUB);
+        for (int r = 1; r <= SEED_RUNS && pool.size() < SEED_RUNS; r++) {
+            CompactSolution wave = greedy.runWithAisleBudget(Math.max(1, instance.nAisles() * r / (2 * SEED_RUNS)));
+            if (wave != null && !wave.isEmpty()) {
+                state.load(wave);
+                if (state.isFeasible()) {
+                    pool.add(wave, state.ratio());
+                    incumbent.offer(wave, name());
+                }
+            }
+        }
+    }
+
+    /*
+     * Caminha de from ate to e devolve a melhor wave intermediaria viavel (ou null)
+     */
+    private CompactSolution relink(CompactSolution from, CompactSolution to, long deadline) {
+        load(from);
+        nMoves = 0;
+        for (int k = 0; k < to.aisleCount(); k++) {
+            if (!state.hasAisle(to.aisle(k))) {
+                moves[nMoves++] = to.aisle(k);
+            }
+        }
+        for (int k = 0; k < from.aisleCount(); k++) {
+            if (!to.containsAisle(from.aisle(k))) {
+                moves[nMoves++] = ~from.aisle(k);
+            }
+        }
+
+        CompactSolution best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        while (nMoves > 1 && System.currentTimeMillis() < deadline) {
+            int bestMove = -1;
+            double bestMoveScore = Double.NEGATIVE_INFINITY;
+            // Amostra contigua a partir de um ponto sorteado
+            int start = nMoves > sample ? random.nextInt(nMoves) : 0;
+            for (int s = 0; s < Math.min(sample, nMoves); s++) {
+                int m = (start + s) % nMoves;
+                if (moves[m] < 0 && state.aisleCount() <= 1) {
+                    continue;
+                }
+                double moveScore = evaluate(moves[m]);
+                if (moveScore > bestMoveScore) {
+                    bestMoveScore = moveScore;
+                    bestMove = m;
+                }
+            }
+            if (bestMove < 0) {
+                break;
+            }
+            applyMove(moves[bestMove]);
+            moves[bestMove] = moves[--nMoves];
+            if (bestMoveScore > bestScore + 1e-9) {
+                bestScore = bestMoveScore;
+                best = bestMoveScore > 0 ? state.toSolution() : null;
+            }
+        }
+        if (best != null) {
+            state.load(best);
+        }
+        return best;
+    }
+
+    /*
+     * Razao unidades/corredores das solucoes viaveis; abaixo do LB, o quanto falta (negativo)
+     */
+    private double score() {
+        if (state.aisleCount() == 0 || state.units() == 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (state.units() < waveSizeLB) {
+            return state.units() - waveSizeLB;
+        }
+        return state.ratio();
+    }
+
+    private void load(CompactSolution solution) {
+        state.clear();
+        for (int k = 0; k < solution.aisleCount(); k++) {
+            state.addAisle(solution.aisle(k));
+        }
+        nPacked = 0;
+        for (int k = 0; k < solution.orderCount(); k++) {
+            state.addOrder(solution.order(k));
+            packed[nPacked++] = solution.order(k);
+        }
+    }
+
+    /*
+     * Pontua o movimento e desfaz: os pedidos salvos voltam sem checagem
+     */
+    private double evaluate(int move) {
+        System.arraycopy(packed, 0, saved, 0, nPacked);
+        nSaved = nPacked;
+        applyMove(move);
+        double moveScore = score();
+
+        for (int k = 0; k < nPacked; k++) {
+            state.removeOrder(packed[k]);
+        }
+        toggle(~move);
+        for (int k = 0; k < nSaved; k++) {
+            state.addOrder(saved[k]);
+            packed[k] = saved[k];
+        }
+        nPacked = nSaved;
+        return moveScore;
+    }
+
+    private void applyMove(int move) {
+        toggle(move);
+        repack();
+    }
+
+    private void toggle(int move) {
+        if (move >= 0) {
+            state.addAisle(move);
+        } else {
+            state.removeAisle(~move);
+        }
+    }
+
+    /*
+     * Gulosa de mochila multidimensional: esvazia e recoloca os pedidos por densidade
+     */
+    private void repack() {
+        for (int k = 0; k < nPacked; k++) {
+            state.removeOrder(packed[k]);
+        }
+        nPacked = 0;
+        for (int order : priority) {
+            if (state.units() >= waveSizeUB) {
+                break;
+            }
+            if (state.canAddOrder(order)) {
+                state.addOrder(order);
+                packed[nPacked++] = order;
+            }
+        }
+    }
+}
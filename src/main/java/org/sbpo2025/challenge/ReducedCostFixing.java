@@ -0,0 +1,227 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+
+import com.google.ortools.linearsolver.MPSolver;
+import com.google.ortools.linearsolver.MPVariable;
+
+/*
+ * Fixacao por custo reduzido e probing sobre a relaxacao linear (GLOP) do WaveModel com
+ * o objetivo de Dinkelbach na razao r0 do incumbente quando o LP e resolvido:
+ *   f(x) = r0 * sum c_a - sum units_o p_o
+ * Uma wave com razao r > r* >= r0 tem f < (r0 - r*) * corredores <= r0 - r*, entao o
+ * limiar t = r0 - r* so cai conforme o incumbente melhora, sem resolver o LP de novo.
+ *
+ * Para cada variavel guardamos um limitante inferior de f com ela em 0 e com ela em 1:
+ * na base otima do LP, uma variavel no limite 0 com custo reduzido d >= 0 tem
+ * f(x=1) >= f_LP + d (e simetricamente no limite 1). O probing nos corredores resolve o
+ * LP de novo com c_a fixo em 1 e em 0 (GLOP reaproveita a base) e troca esses
+ * limitantes pelo valor do LP, que tambem vale para os corredores basicos. Um valor cujo
+ * limitante passa de t nao aparece em nenhuma wave melhor que o incumbente, e a
+ * variavel e fixada no outro valor. Como o criterio e a razao verdadeira, as fixacoes
+ * valem para qualquer backend; o proprio incumbente pode ficar de fora (nao e melhor que
+ * ele mesmo). update() refaz o teste a cada melhora; as fixacoes so crescem.
+ */
+public class ReducedCostFixing {
+    private static final double EPSILON = 1e-6;
+
+    private final SparseInstance instance;
+    private final boolean[] servable;
+    private final int waveSizeLB;
+    private final int waveSizeUB;
+
+    private double lpValue = Double.NaN;
+    private double lpRatio;
+    private final double[] orderZeroBound;
+    private final double[] orderOneBound;
+    private final double[] aisleZeroBound;
+    private final double[] aisleOneBound;
+
+    // -1 livre, 0 ou 1 fixado
+    private final int[] orderFixed;
+    private final int[] aisleFixed;
+    private int nFixedOrders;
+    private int nFixedAisles;
+    private int nProbed;
+
+    public ReducedCostFixing(SparseInstance instance, boolean[] servable, int waveSizeLB, int waveSizeUB) {
+        this.instance = instance;
+        this.servable = servable;
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+        this.orderZeroBound = new double[instance.nOrders()];
+        this.orderOneBound = new double[instance.nOrders()];
+        this.aisleZeroBound = new double[instance.nAisles()];
+        this.aisleOneBound = new double[instance.nAisles()];
+        this.orderFixed = new int[instance.nOrders()];
+        this.aisleFixed = new int[instance.nAisles()];
+        Arrays.fill(orderFixed, -1);
+        Arrays.fill(aisleFixed, -1);
+    }
+
+    /*
+     * Resolve o LP na razao do incumbente e usa o que sobrar do tempo em probing, dos
+     * corredores mais proximos de serem fixados aos mais distantes. O LP leva os cortes de
+     * WaveCuts: sem eles quase nada passa do limiar. Retorna false se o LP nao terminou
+     * no tempo.
+     */
+    public boolean solveRelaxation(long timeLimitMillis, double incumbentRatio) {
+        long deadline = System.currentTimeMillis() + timeLimitMillis;
+        NativeLibraries.ensureLoaded();
+        MPSolver solver = MPSolver.createSolver("GLOP");
+        if (solver == null) {
+            return false;
+        }
+        try {
+            WaveModel model = WaveModel.build(solver, instance, servable, waveSizeLB, waveSizeUB,
+                    WaveModel.BuildMode.DIRECT, false);
+            new WaveCuts(instance, servable, waveSizeLB, waveSizeUB).addTo(model);
+            lpRatio = Math.max(incumbentRatio, 0);
+            for (MPVariable aisle : model.aisleVariables()) {
+                model.solver().objective().setCoefficient(aisle, lpRatio);
+            }
+            solver.setTimeLimit(Math.max(deadline - System.currentTimeMillis(), 1));
+            if (solver.solve() != MPSolver.ResultStatus.OPTIMAL) {
+                return false;
+            }
+            lpValue = solver.objective().value();
+            MPVariable[] p = model.orderVariables();
+            MPVariable[] c = model.aisleVariables();
+            for (int o = 0; o < p.length; o++) {
+                setBounds(p[o], orderZeroBound, orderOneBound, o);
+            }
+            for (int a = 0; a < c.length; a++) {
+                setBounds(c[a], aisleZeroBound, aisleOneBound, a);
+            }
+            probe(solver, c, deadline, threshold(lpRatio));
+            return true;
+        } finally {
+            solver.delete();
+        }
+    }
+
+    private void setBounds(MPVariable variable, double[] zeroBound, double[] oneBound, int index) {
+        double value = variable.solutionValue();
+        double reducedCost = variable.reducedCost();
+        zeroBound[index] = lpValue;
+        oneBound[index] = lpValue;
+        if (value < EPSILON && reducedCost > 0) {
+            oneBound[index] = lpValue + reducedCost;
+        } else if (value > 1 - EPSILON && reducedCost < 0) {
+            zeroBound[index] = lpValue - reducedCost;
+        }
+    }
+
+    private void probe(MPSolver solver, MPVariable[] c, long deadline, double threshold) {
+        // Os mais proximos do incumbente primeiro: e onde o probing mais fixa
+        Integer[] order = new Integer[c.length];
+        for (int a = 0; a < c.length; a++) {
+            order[a] = a;
+        }
+        Arrays.sort(order, (x, y) -> Double.compare(Math.max(aisleZeroBound[y], aisleOneBound[y]),
+                Math.max(aisleZeroBound[x], aisleOneBound[x])));
+        for (int a : order) {
+            if (System.currentTimeMillis() >= deadline) {
+                break;
+            }
+            if (Math.max(aisleZeroBound[a], aisleOneBound[a]) > threshold) {
+                continue;
+            }
+            for (int value = 0; value <= 1; value++) {
+                c[a].setBounds(value, value);
+                solver.setTimeLimit(Math.max(deadline - System.currentTimeMillis(), 1));
+                MPSolver.ResultStatus status = solver.solve();
+                double bound = status == MPSolver.ResultStatus.INFEASIBLE ? Double.POSITIVE_INFINITY
+                        : status == MPSolver.ResultStatus.OPTIMAL ? solver.objective().value() : Double.NaN;
+                if (!Double.isNaN(bound)) {
+                    double[] bounds = value == 0 ? aisleZeroBound : aisleOneBound;
+                    bounds[a] = Math.max(bounds[a], bound);
+                }
+            }
+            c[a].setBounds(0, 1);
+            nProbed++;
+        }
+    }
+
+    /*
+     * Waves melhores que a razao dada tem f abaixo deste limiar (com folga numerica)
+     */
+    private double threshold(double incumbentRatio) {
+        double threshold = lpRatio - incumbentRatio;
+        return threshold + EPSILON * Math.max(1, Math.abs(lpValue));
+    }
+
+    /*
+     * Fixa o que os limitantes provam contra a razao do incumbente; retorna quantas
+     * variaveis foram fixadas agora
+     */
+    public synchronized int update(double incumbentRatio) {
+        if (Double.isNaN(lpValue) || incumbentRatio < lpRatio) {
+            return 0;
+        }
+        double threshold = threshold(incumbentRatio);
+        int before = nFixedOrders + nFixedAisles;
+        for (int o = 0; o < orderFixed.length; o++) {
+            if (servable[o] && orderFixed[o] < 0) {
+                orderFixed[o] = fixedValue(orderZeroBound[o], orderOneBound[o], threshold);
+                nFixedOrders += orderFixed[o] >= 0 ? 1 : 0;
+            }
+        }
+        for (int a = 0; a < aisleFixed.length; a++) {
+            if (aisleFixed[a] < 0) {
+                aisleFixed[a] = fixedValue(aisleZeroBound[a], aisleOneBound[a], threshold);
+                nFixedAisles += aisleFixed[a] >= 0 ? 1 : 0;
+            }
+        }
+        return nFixedOrders + nFixedAisles - before;
+    }
+
+    private static int fixedValue(double zeroBound, double oneBound, double threshold) {
+        if (oneBound > threshold) {
+            return 0;
+        }
+        return zeroBound > threshold ? 1 : -1;
+    }
+
+    public synchronized int orderFixed(int order) {
+        return orderFixed[order];
+    }
+
+    public synchronized int aisleFixed(int aisle) {
+        return aisleFixed[aisle];
+    }
+
+    /*
+     * Copia de servable sem os pedidos fixados em 0
+     */
+    public synchronized boolean[] restrictServable(boolean[] servable) {
+        boolean[] restricted = servable.clone();
+        for (int o = 0; o < restricted.length; o++) {
+            restricted[o] &= orderFixed[o] != 0;
+        }
+        return restricted;
+    }
+
+    /*
+     * Empurra as fixacoes como limites das variaveis do modelo
+     */
+    public synchronized void applyTo(WaveModel model) {
+        MPVariable[] p = model.orderVariables();
+        MPVariable[] c = model.aisleVariables();
+        for (int o = 0; o < p.length; o++) {
+            if (orderFixed[o] >= 0) {
+                p[o].setBounds(orderFixed[o], orderFixed[o]);
+            }
+        }
+        for (int a = 0; a < c.length; a++) {
+            if (aisleFixed[a] >= 0) {
+                c[a].setBounds(aisleFixed[a], aisleFixed[a]);
+            }
+        }
+    }
+
+    public synchronized String describe() {
+        return String.format("Reduced-cost fixing: LP %.2f at ratio %.4f, %d/%d orders and %d/%d aisles fixed, %d aisles probed",
+                lpValue, lpRatio, nFixedOrders, orderFixed.length, nFixedAisles, aisleFixed.length, nProbed);
+    }
+}
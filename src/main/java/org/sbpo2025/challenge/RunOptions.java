@@ -0,0 +1,185 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Opcoes de linha de comando: <inputFilePath> <outputFilePath> [--opcoes]
+ */
+public class RunOptions {
+    static final String USAGE = "Usage: java -jar target/ChallengeSBPO2025-1.0.jar <inputFilePath> <outputFilePath>"
+            + " [--waves] [--time-limit=<seconds>] [--backend=<name>] [--cpsat-params=<text>] [--build=direct|proto] [--names]"
+            + " [--bench-build] [--bench-parse] [--benchmark [--backends=<name>,...|--strategies=<options>;...]] [--cuts] [--bench-cuts] [--symmetry] [--bench-symmetry] [--bench-kernels] [--fixing] [--store=<dir>] [--sweep=LB:UB,...] [--frontier] [--auto[=<rules>]] [--calibrate=<benchmark.csv>,...]"
+            + " [--workers=<name>:<share>,...|none] [--to-binary] [--threads=<n>] [--thread-split=<mip>,<heuristic>]";
+
+    String inputPath;
+    String outputPath;
+    boolean multiWave = false;
+    boolean benchBuild = false;
+    boolean benchParse = false;
+    boolean benchmark = false;
+    boolean benchCuts = false;
+    boolean cuts = false;
+    boolean benchSymmetry = false;
+    boolean symmetry = false;
+    boolean benchKernels = false;
+    boolean reducedCostFixing = false;
+    boolean frontier = false;
+    boolean toBinary = false;
+    boolean variableNames = false;
+    WaveModel.BuildMode buildMode = WaveModel.BuildMode.DIRECT;
+    String backend = SolverBackends.DEFAULT;
+    String cpSatParameters = "";
+    String workers = SearchWorkers.DEFAULT;
+    String storePath = null;
+    List<String> backends = SolverBackends.NAMES;
+    List<String> strategies = null;
+    long timeLimitMillis = -1;
+    List<int[]> sweepBounds = null;
+    String autoRules = null;
+    String calibrate = null;
+    int threads = ThreadBudget.availableProcessors();
+    String threadSplit = null;
+    ThreadBudget threadBudget;
+    private final Set<String> explicit = new HashSet<>();
+    private String[] args;
+
+    /*
+     * Retorna null (e imprime o uso) se os argumentos forem invalidos
+     */
+    static RunOptions parse(String[] args) {
+        if (args.length < 2) {
+            System.out.println(USAGE);
+            return null;
+        }
+        RunOptions options = new RunOptions();
+        options.args = args;
+        options.inputPath = args[0];
+        options.outputPath = args[1];
+        for (int k = 2; k < args.length; k++) {
+            if (!options.apply(args[k])) {
+                System.out.println("Unknown option: " + args[k]);
+                System.out.println(USAGE);
+                return null;
+            }
+            options.explicit.add(key(args[k]));
+        }
+        options.threadBudget = options.newThreadBudget();
+        return options;
+    }
+
+    /*
+     * Aplica uma opcao; false se ela nao existir
+     */
+    private boolean apply(String arg) {
+        if (arg.equals("--waves")) {
+            multiWave = true;
+        } else if (arg.equals("--bench-build")) {
+            benchBuild = true;
+        } else if (arg.equals("--bench-parse")) {
+            benchParse = true;
+        } else if (arg.equals("--benchmark")) {
+            benchmark = true;
+        } else if (arg.equals("--bench-cuts")) {
+            benchCuts = true;
+        } else if (arg.equals("--cuts")) {
+            cuts = true;
+        } else if (arg.equals("--bench-symmetry")) {
+            benchSymmetry = true;
+        } else if (arg.equals("--bench-kernels")) {
+            benchKernels = true;
+        } else if (arg.equals("--symmetry")) {
+            symmetry = true;
+        } else if (arg.equals("--fixing")) {
+            reducedCostFixing = true;
+        } else if (arg.equals("--frontier")) {
+            frontier = true;
+        } else if (arg.equals("--to-binary")) {
+            toBinary = true;
+        } else if (arg.equals("--names")) {
+            variableNames = true;
+        } else if (arg.startsWith("--build=")) {
+            buildMode = WaveModel.BuildMode.valueOf(value(arg).toUpperCase());
+        } else if (arg.startsWith("--backend=")) {
+            backend = value(arg);
+        } else if (arg.startsWith("--cpsat-params=")) {
+            cpSatParameters = value(arg);
+        } else if (arg.startsWith("--workers=")) {
+            workers = value(arg);
+        } else if (arg.startsWith("--store=")) {
+            storePath = value(arg);
+        } else if (arg.startsWith("--backends=")) {
+            backends = Arrays.asList(value(arg).split(","));
+        } else if (arg.startsWith("--strategies=")) {
+            strategies = Arrays.asList(value(arg).split(";"));
+        } else if (arg.startsWith("--sweep=")) {
+            sweepBounds = BoundSweep.parseBounds(value(arg));
+        } else if (arg.startsWith("--time-limit=")) {
+            timeLimitMillis = Long.parseLong(value(arg)) * 1000;
+        } else if (arg.startsWith("--threads=")) {
+            threads = Integer.parseInt(value(arg));
+        } else if (arg.startsWith("--thread-split=")) {
+            threadSplit = value(arg);
+        } else if (arg.equals("--auto") || arg.startsWith("--auto=")) {
+            autoRules = arg.equals("--auto") ? "" : value(arg);
+        } else if (arg.startsWith("--calibrate=")) {
+            calibrate = value(arg);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /*
+     * Opcoes de uma regra de StrategyRules: as dadas na linha de comando prevalecem
+     */
+    void applyRule(List<String> flags) {
+        for (String flag : flags) {
+            if (explicit.contains(key(flag))) {
+                continue;
+            }
+            if (!apply(flag)) {
+                throw new IllegalArgumentException("Unknown option in strategy rule: " + flag);
+            }
+        }
+        threadBudget = threadBudget.resplit(threads, threadSplit);
+    }
+
+    /*
+     * Copia com as opcoes de uma estrategia do --benchmark, que prevalecem sobre as da linha
+     * de comando
+     */
+    RunOptions withFlags(List<String> flags) {
+        RunOptions copy = parse(args);
+        for (String flag : flags) {
+            if (!copy.apply(flag)) {
+                throw new IllegalArgumentException("Unknown option in strategy: " + flag);
+            }
+        }
+        copy.threadBudget = threadBudget.resplit(copy.threads, copy.threadSplit);
+        return copy;
+    }
+
+    /*
+     * Opcoes de uma estrategia: "--backend=sat --workers=none" ou so o nome do backend
+     */
+    static List<String> strategyFlags(String strategy) {
+        String trimmed = strategy.strip();
+        return trimmed.startsWith("--") ? Arrays.asList(trimmed.split("\\s+")) : List.of("--backend=" + trimmed);
+    }
+
+    private ThreadBudget newThreadBudget() {
+        return threadSplit == null ? ThreadBudget.split(threads) : ThreadBudget.parseSplit(threads, threadSplit);
+    }
+
+    private static String key(String arg) {
+        int equals = arg.indexOf('=');
+        return equals < 0 ? arg : arg.substring(0, equals);
+    }
+
+    private static String value(String arg) {
+        return arg.substring(arg.indexOf('=') + 1);
+    }
+}
@@ -0,0 +1,11 @@
+package org.sbpo2025.challenge;
+
+/*
+ * Heuristica que roda no pipeline de solucao ao lado do backend, com a sua fatia de
+ * tempo, partindo do incumbente e oferecendo a ele cada melhoria
+ */
+public interface SearchWorker {
+    String name();
+
+    void run(long timeLimitMillis, Incumbent incumbent);
+}
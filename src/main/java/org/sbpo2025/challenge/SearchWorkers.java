@@ -0,0 +1,60 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Fabrica dos workers do pipeline (--workers=<nome>:<fracao>,...). A fracao e a parte do
+ * tempo total que o worker pode usar; "none" desliga os workers.
+ */
+public final class SearchWorkers {
+    public static final String DEFAULT = "tabu:0.25";
+    public static final List<String> NAMES = List.of("tabu", "relink", "ga");
+
+    private SearchWorkers() {
+    }
+
+    public static SearchWorker create(String name, SparseInstance instance, boolean[] servable,
+                                      int waveSizeLB, int waveSizeUB, int threads) {
+        switch (name.toLowerCase()) {
+            case "tabu":
+                return new TabuSearch(instance, servable, waveSizeLB, waveSizeUB);
+            case "relink":
+                return new PathRelinking(instance, servable, waveSizeLB, waveSizeUB);
+            case "ga":
+                return new IslandSearch(instance, servable, waveSizeLB, waveSizeUB, threads);
+            default:
+                throw new IllegalArgumentException("Unknown worker: " + name + " (expected one of " + NAMES + ")");
+        }
+    }
+
+    /*
+     * Cada slot ocupa uma thread do pipeline; as threads de heuristica que sobram vao para
+     * os workers que usam varias (ga), divididas entre eles
+     */
+    public static SolvePipeline pipeline(String spec, SparseInstance instance, boolean[] servable,
+                                         int waveSizeLB, int waveSizeUB, int threads) {
+        List<SolvePipeline.Slot> slots = new ArrayList<>();
+        if (!spec.isBlank() && !spec.equalsIgnoreCase("none")) {
+            String[] entries = spec.split(",");
+            int multiThreaded = 0;
+            for (String entry : entries) {
+                if (entry.split(":")[0].trim().equalsIgnoreCase("ga")) {
+                    multiThreaded++;
+                }
+            }
+            int spare = Math.max(0, threads - entries.length);
+            for (String entry : entries) {
+                String[] parts = entry.split(":");
+                double share = parts.length > 1 ? Double.parseDouble(parts[1].trim()) : 0.25;
+                if (share <= 0 || share > 1) {
+                    throw new IllegalArgumentException("Worker share must be in (0, 1]: " + entry);
+                }
+                int workerThreads = 1 + (multiThreaded == 0 ? 0 : spare / multiThreaded);
+                slots.add(new SolvePipeline.Slot(
+                        create(parts[0].trim(), instance, servable, waveSizeLB, waveSizeUB, workerThreads), share));
+            }
+        }
+        return new SolvePipeline(slots, threads);
+    }
+}
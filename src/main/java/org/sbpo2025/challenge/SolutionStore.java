@@ -0,0 +1,264 @@
+package org.sbpo2025.challenge;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/*
+ * Banco de waves em disco entre execucoes (--store=<dir>). Cada instancia tem um arquivo
+ * <hash>.waves, com o SHA-256 do conteudo (dimensoes, linhas de pedidos e corredores,
+ * LB e UB) como chave:
+ *   sbpo-wave-store 1
+ *   <hash>
+ *   <nItems> <nOrders> <nAisles> <LB> <UB>
+ *   <sketch dos pedidos>
+ *   <sketch dos corredores>
+ *   <numero de waves> e cada wave no formato da saida
+ *
+ * Sem o hash exato, vale a entrada mais parecida: os sketches sao bottom-k minhash dos
+ * pares (indice, conteudo da linha), entao a similaridade estima a fracao de pedidos e
+ * corredores que continuam iguais no mesmo indice, que e o que importa para reaproveitar
+ * os indices da wave guardada. O reparo contra o estoque e os limites atuais fica com
+ * quem carrega. A gravacao vai para um temporario e e movida atomicamente.
+ */
+public class SolutionStore {
+    public record Key(String hash, int nItems, int nOrders, int nAisles, int waveSizeLB, int waveSizeUB,
+                      long[] orderSketch, long[] aisleSketch) {
+    }
+
+    static final int MAX_WAVES = 5;
+    private static final String MAGIC = "sbpo-wave-store 1";
+    private static final String SUFFIX = ".waves";
+    private static final int SKETCH_SIZE = 128;
+    private static final double NEAR_MATCH = 0.8;
+
+    private final Path directory;
+
+    public SolutionStore(String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    public static Key key(SparseInstance instance, int waveSizeLB, int waveSizeUB) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        buffer.putInt(instance.nItems()).putInt(instance.nOrders()).putInt(instance.nAisles());
+        long[] orderRows = new long[instance.nOrders()];
+        for (int o = 0; o < instance.nOrders(); o++) {
+            orderRows[o] = hashRow(digest, buffer, o, instance.orderBegin(o), instance.orderEnd(o), true, instance);
+        }
+        long[] aisleRows = new long[instance.nAisles()];
+        for (int a = 0; a < instance.nAisles(); a++) {
+            aisleRows[a] = hashRow(digest, buffer, a, instance.aisleBegin(a), instance.aisleEnd(a), false, instance);
+        }
+        ensure(digest, buffer, 8);
+        buffer.putInt(waveSizeLB).putInt(waveSizeUB);
+        digest.update(buffer.array(), 0, buffer.position());
+        String hash = HexFormat.of().formatHex(digest.digest());
+        return new Key(hash, instance.nItems(), instance.nOrders(), instance.nAisles(), waveSizeLB, waveSizeUB,
+                sketch(orderRows), sketch(aisleRows));
+    }
+
+    /*
+     * Alimenta o digest com a linha e devolve o hash de 64 bits do par (indice, linha)
+     */
+    private static long hashRow(MessageDigest digest, ByteBuffer buffer, int index, int begin, int end,
+                                boolean order, SparseInstance instance) {
+        ensure(digest, buffer, 4);
+        buffer.putInt(end - begin);
+        long hash = mix(index);
+        for (int k = begin; k < end; k++) {
+            int item = order ? instance.orderItem(k) : instance.aisleItem(k);
+            int quantity = order ? instance.orderQuantity(k) : instance.aisleQuantity(k);
+            ensure(digest, buffer, 8);
+            buffer.putInt(item).putInt(quantity);
+            hash = mix(hash ^ (((long) item << 32) | quantity));
+        }
+        return hash;
+    }
+
+    private static void ensure(MessageDigest digest, ByteBuffer buffer, int needed) {
+        if (buffer.remaining() < needed) {
+            digest.update(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long[] sketch(long[] rows) {
+        long[] sorted = rows.clone();
+        Arrays.sort(sorted);
+        return Arrays.copyOf(sorted, Math.min(SKETCH_SIZE, sorted.length));
+    }
+
+    /*
+     * Jaccard estimada: dos k menores da uniao, quantos estao nos dois sketches
+     */
+    static double similarity(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        int both = 0;
+        int seen = 0;
+        while (seen < SKETCH_SIZE && (i < a.length || j < b.length)) {
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                i++;
+            } else if (i >= a.length || b[j] < a[i]) {
+                j++;
+            } else {
+                both++;
+                i++;
+                j++;
+            }
+            seen++;
+        }
+        return seen == 0 ? 1 : (double) both / seen;
+    }
+
+    /*
+     * Waves guardadas para a chave exata ou, sem ela, para a entrada mais parecida acima
+     * de NEAR_MATCH. Lista vazia se nada servir.
+     */
+    public List<CompactSolution> load(Key key) {
+        Path exact = directory.resolve(key.hash() + SUFFIX);
+        if (Files.exists(exact)) {
+            List<CompactSolution> waves = readWaves(exact);
+            System.out.printf("Solution store: %d waves for %s%n", waves.size(), key.hash().substring(0, 12));
+            return waves;
+        }
+        File[] entries = directory.toFile().listFiles((dir, name) -> name.endsWith(SUFFIX));
+        Path best = null;
+        double bestSimilarity = NEAR_MATCH;
+        for (File entry : entries == null ? new File[0] : entries) {
+            double similarity = similarity(key, entry.toPath());
+            if (similarity >= bestSimilarity) {
+                bestSimilarity = similarity;
+                best = entry.toPath();
+            }
+        }
+        if (best == null) {
+            System.out.println("Solution store: no entry for " + key.hash().substring(0, 12));
+            return List.of();
+        }
+        List<CompactSolution> waves = readWaves(best);
+        System.out.printf("Solution store: %d waves from near match %s (similarity %.2f)%n",
+                waves.size(), best.getFileName(), bestSimilarity);
+        return waves;
+    }
+
+    private static double similarity(Key key, Path entry) {
+        try (BufferedReader reader = Files.newBufferedReader(entry)) {
+            if (!MAGIC.equals(reader.readLine())) {
+                return 0;
+            }
+            reader.readLine();
+            int[] size = parseInts(reader.readLine());
+            if (size[0] != key.nItems()) {
+                return 0;
+            }
+            long[] orderSketch = parseLongs(reader.readLine());
+            long[] aisleSketch = parseLongs(reader.readLine());
+            return (similarity(key.orderSketch(), orderSketch) + similarity(key.aisleSketch(), aisleSketch)) / 2;
+        } catch (IOException | RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private static List<CompactSolution> readWaves(Path entry) {
+        List<CompactSolution> waves = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(entry)) {
+            for (int line = 0; line < 5; line++) {
+                reader.readLine();
+            }
+            int nWaves = Integer.parseInt(reader.readLine().trim());
+            for (int w = 0; w < nWaves; w++) {
+                int[] orders = new int[Integer.parseInt(reader.readLine().trim())];
+                for (int k = 0; k < orders.length; k++) {
+                    orders[k] = Integer.parseInt(reader.readLine().trim());
+                }
+                int[] aisles = new int[Integer.parseInt(reader.readLine().trim())];
+                for (int k = 0; k < aisles.length; k++) {
+                    aisles[k] = Integer.parseInt(reader.readLine().trim());
+                }
+                waves.add(CompactSolution.of(orders, aisles));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Solution store: skipping unreadable entry " + entry + ": " + e.getMessage());
+        }
+        return waves;
+    }
+
+    /*
+     * Substitui a entrada da chave pelas waves dadas (ja ordenadas da melhor para a pior)
+     */
+    public void save(Key key, List<CompactSolution> waves) {
+        try {
+            Files.createDirectories(directory);
+            Path target = directory.resolve(key.hash() + SUFFIX);
+            Path temporary = Files.createTempFile(directory, key.hash(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary)) {
+                writer.write(MAGIC);
+                writer.newLine();
+                writer.write(key.hash());
+                writer.newLine();
+                writer.write(key.nItems() + " " + key.nOrders() + " " + key.nAisles() + " "
+                        + key.waveSizeLB() + " " + key.waveSizeUB());
+                writer.newLine();
+                writer.write(joinLongs(key.orderSketch()));
+                writer.newLine();
+                writer.write(joinLongs(key.aisleSketch()));
+                writer.newLine();
+                int n = Math.min(waves.size(), MAX_WAVES);
+                writer.write(String.valueOf(n));
+                writer.newLine();
+                for (int w = 0; w < n; w++) {
+                    Challenge.writeSolution(writer, waves.get(w));
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            System.out.printf("Solution store: saved %d waves to %s%n", Math.min(waves.size(), MAX_WAVES), target);
+        } catch (IOException e) {
+            System.err.println("Error writing solution store entry in " + directory);
+            e.printStackTrace();
+        }
+    }
+
+    private static String joinLongs(long[] values) {
+        StringBuilder builder = new StringBuilder();
+        for (long value : values) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+
+    private static int[] parseInts(String line) {
+        return Arrays.stream(line.trim().split("\\s+")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static long[] parseLongs(String line) {
+        return line.isBlank() ? new long[0] : Arrays.stream(line.trim().split("\\s+")).mapToLong(Long::parseLong).toArray();
+    }
+}
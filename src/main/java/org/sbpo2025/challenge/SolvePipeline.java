@@ -0,0 +1,77 @@
+package org.sbpo2025.challenge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * Workers heuristicos em volta do backend. Com threads de heuristica no orcamento, os
+ * workers rodam em paralelo com o backend, cada um ate a sua fatia de tempo. Sem elas
+ * (maquina de 1 nucleo), rodam em sequencia antes do backend, que recebe o tempo que
+ * sobrar e o melhor incumbente como hint.
+ */
+public class SolvePipeline {
+    public record Slot(SearchWorker worker, double share) {
+    }
+
+    private final List<Slot> slots;
+    private final int threads;
+    private ExecutorService executor;
+    private final List<Future<?>> futures = new ArrayList<>();
+
+    public SolvePipeline(List<Slot> slots, int threads) {
+        this.slots = slots;
+        this.threads = threads;
+    }
+
+    public boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    public void start(long totalMillis, Incumbent incumbent) {
+        if (slots.isEmpty()) {
+            return;
+        }
+        if (threads <= 0) {
+            for (Slot slot : slots) {
+                runSlot(slot, totalMillis, incumbent);
+            }
+            return;
+        }
+        executor = Executors.newFixedThreadPool(Math.min(threads, slots.size()));
+        for (Slot slot : slots) {
+            futures.add(executor.submit(() -> runSlot(slot, totalMillis, incumbent)));
+        }
+    }
+
+    private static void runSlot(Slot slot, long totalMillis, Incumbent incumbent) {
+        long slice = (long) (slot.share() * totalMillis);
+        long start = System.currentTimeMillis();
+        slot.worker().run(slice, incumbent);
+        System.out.printf("Worker %s finished in %d ms (slice %d ms)%n",
+                slot.worker().name(), System.currentTimeMillis() - start, slice);
+    }
+
+    /*
+     * Espera os workers paralelos (cada um respeita a propria fatia)
+     */
+    public void finish() {
+        if (executor == null) {
+            return;
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                System.err.println("Search worker failed");
+                e.getCause().printStackTrace();
+            }
+        }
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,26 @@
+package org.sbpo2025.challenge;
+
+/*
+ * Backend de resolucao de uma wave. O ciclo de uso e buildModel -> setHint (opcional)
+ * -> solve -> close. Melhorias encontradas durante o solve sao publicadas no Incumbent
+ * assim que o backend as enxerga.
+ */
+public interface SolverBackend {
+    String name();
+
+    void buildModel(SparseInstance instance, boolean[] servable, int waveSizeLB, int waveSizeUB);
+
+    void setHint(CompactSolution hint);
+
+    /*
+     * Fixacoes provadas contra o incumbente (ReducedCostFixing), aplicadas antes do solve.
+     * Backends sem modelo proprio podem ignorar.
+     */
+    default void fixVariables(ReducedCostFixing fixing) {
+    }
+
+    CompactSolution solve(long timeLimitMillis, int numThreads, Incumbent incumbent);
+
+    default void close() {
+    }
+}
@@ -0,0 +1,42 @@
+package org.sbpo2025.challenge;
+
+import java.util.List;
+
+/*
+ * Fabrica dos backends selecionaveis pela linha de comando (--backend=<nome>)
+ */
+public final class SolverBackends {
+    public static final String DEFAULT = "sat";
+    public static final List<String> NAMES = List.of("sat", "cpsat", "scip", "cbc", "kernel", "heuristic");
+
+    private SolverBackends() {
+    }
+
+    public static SolverBackend create(String name, WaveModel.BuildMode buildMode, boolean variableNames,
+                                       String cpSatParameters, boolean cuts, boolean symmetry) {
+        switch (name.toLowerCase()) {
+            case "sat":
+                return mpSolver("SAT", buildMode, variableNames, cuts, symmetry);
+            case "cpsat":
+                return new CpSatBackend(cpSatParameters);
+            case "scip":
+                return mpSolver("SCIP", buildMode, variableNames, cuts, symmetry);
+            case "cbc":
+                return mpSolver("CBC", buildMode, variableNames, cuts, symmetry);
+            case "kernel":
+                return new KernelSearchBackend("SAT");
+            case "heuristic":
+                return new HeuristicBackend();
+            default:
+                throw new IllegalArgumentException("Unknown backend: " + name + " (expected one of " + NAMES + ")");
+        }
+    }
+
+    private static MpSolverBackend mpSolver(String solverId, WaveModel.BuildMode buildMode, boolean variableNames,
+                                            boolean cuts, boolean symmetry) {
+        MpSolverBackend backend = new MpSolverBackend(solverId, buildMode, variableNames);
+        backend.setCuts(cuts);
+        backend.setSymmetry(symmetry);
+        return backend;
+    }
+}
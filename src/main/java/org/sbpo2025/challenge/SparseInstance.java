@@ -0,0 +1,319 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Instancia em formato CSR: para cada pedido/corredor, os itens (ordenados) e as
+ * quantidades ficam contiguos em arrays primitivos, sem boxing. Todo acesso passa pelos
+ * metodos abaixo, entao MappedInstance pode guardar os mesmos arrays fora do heap.
+ */
+public class SparseInstance {
+    private final int nItems;
+    private final int[] orderStart;
+    private final int[] orderItems;
+    private final int[] orderQuantities;
+    private final int[] aisleStart;
+    private final int[] aisleItems;
+    private final int[] aisleQuantities;
+    private final int[] orderUnits;
+    private final int[] aisleUnits;
+
+    // Indice invertido (item -> pedidos/corredores), tambem em CSR
+    private final int[] itemOrderStart;
+    private final int[] itemOrders;
+    private final int[] itemOrderQuantities;
+    private final int[] itemAisleStart;
+    private final int[] itemAisles;
+    private final int[] itemAisleQuantities;
+
+    public SparseInstance(List<Map<Integer, Integer>> orders, List<Map<Integer, Integer>> aisles, int nItems) {
+        this.nItems = nItems;
+        this.orderStart = new int[orders.size() + 1];
+        this.orderItems = new int[countEntries(orders)];
+        this.orderQuantities = new int[orderItems.length];
+        this.orderUnits = new int[orders.size()];
+        fill(orders, orderStart, orderItems, orderQuantities, orderUnits);
+
+        this.aisleStart = new int[aisles.size() + 1];
+        this.aisleItems = new int[countEntries(aisles)];
+        this.aisleQuantities = new int[aisleItems.length];
+        this.aisleUnits = new int[aisles.size()];
+        fill(aisles, aisleStart, aisleItems, aisleQuantities, aisleUnits);
+
+        this.itemOrderStart = new int[nItems + 1];
+        this.itemOrders = new int[orderItems.length];
+        this.itemOrderQuantities = new int[orderItems.length];
+        transpose(orderStart, orderItems, orderQuantities, itemOrderStart, itemOrders, itemOrderQuantities);
+
+        this.itemAisleStart = new int[nItems + 1];
+        this.itemAisles = new int[aisleItems.length];
+        this.itemAisleQuantities = new int[aisleItems.length];
+        transpose(aisleStart, aisleItems, aisleQuantities, itemAisleStart, itemAisles, itemAisleQuantities);
+    }
+
+    /*
+     * A partir de arrays CSR ja montados (linhas com itens ordenados e sem repeticao),
+     * como os do ParallelInstanceParser
+     */
+    SparseInstance(int nItems, int[] orderStart, int[] orderItems, int[] orderQuantities,
+                   int[] aisleStart, int[] aisleItems, int[] aisleQuantities) {
+        this.nItems = nItems;
+        this.orderStart = orderStart;
+        this.orderItems = orderItems;
+        this.orderQuantities = orderQuantities;
+        this.orderUnits = rowUnits(orderStart, orderQuantities);
+        this.aisleStart = aisleStart;
+        this.aisleItems = aisleItems;
+        this.aisleQuantities = aisleQuantities;
+        this.aisleUnits = rowUnits(aisleStart, aisleQuantities);
+
+        this.itemOrderStart = new int[nItems + 1];
+        this.itemOrders = new int[orderItems.length];
+        this.itemOrderQuantities = new int[orderItems.length];
+        transpose(orderStart, orderItems, orderQuantities, itemOrderStart, itemOrders, itemOrderQuantities);
+
+        this.itemAisleStart = new int[nItems + 1];
+        this.itemAisles = new int[aisleItems.length];
+        this.itemAisleQuantities = new int[aisleItems.length];
+        transpose(aisleStart, aisleItems, aisleQuantities, itemAisleStart, itemAisles, itemAisleQuantities);
+    }
+
+    /*
+     * Sub-instancia so com os pedidos e corredores dados (indice local k = orders[k] e
+     * aisles[k]); os itens continuam os mesmos
+     */
+    public SparseInstance restrict(int[] orders, int nOrders, int[] aisles, int nAisles) {
+        int[] subOrderStart = new int[nOrders + 1];
+        for (int k = 0; k < nOrders; k++) {
+            subOrderStart[k + 1] = subOrderStart[k] + orderEnd(orders[k]) - orderBegin(orders[k]);
+        }
+        int[] subOrderItems = new int[subOrderStart[nOrders]];
+        int[] subOrderQuantities = new int[subOrderItems.length];
+        for (int k = 0; k < nOrders; k++) {
+            for (int j = orderBegin(orders[k]), t = subOrderStart[k]; j < orderEnd(orders[k]); j++, t++) {
+                subOrderItems[t] = orderItem(j);
+                subOrderQuantities[t] = orderQuantity(j);
+            }
+        }
+        int[] subAisleStart = new int[nAisles + 1];
+        for (int k = 0; k < nAisles; k++) {
+            subAisleStart[k + 1] = subAisleStart[k] + aisleEnd(aisles[k]) - aisleBegin(aisles[k]);
+        }
+        int[] subAisleItems = new int[subAisleStart[nAisles]];
+        int[] subAisleQuantities = new int[subAisleItems.length];
+        for (int k = 0; k < nAisles; k++) {
+            for (int j = aisleBegin(aisles[k]), t = subAisleStart[k]; j < aisleEnd(aisles[k]); j++, t++) {
+                subAisleItems[t] = aisleItem(j);
+                subAisleQuantities[t] = aisleQuantity(j);
+            }
+        }
+        return new SparseInstance(nItems(), subOrderStart, subOrderItems, subOrderQuantities,
+                subAisleStart, subAisleItems, subAisleQuantities);
+    }
+
+    private static int[] rowUnits(int[] start, int[] quantities) {
+        int[] units = new int[start.length - 1];
+        for (int r = 0; r < units.length; r++) {
+            for (int k = start[r]; k < start[r + 1]; k++) {
+                units[r] += quantities[k];
+            }
+        }
+        return units;
+    }
+
+    /*
+     * Para subclasses que guardam os arrays em outro lugar e sobrescrevem os acessores
+     */
+    protected SparseInstance(int nItems) {
+        this.nItems = nItems;
+        this.orderStart = null;
+        this.orderItems = null;
+        this.orderQuantities = null;
+        this.aisleStart = null;
+        this.aisleItems = null;
+        this.aisleQuantities = null;
+        this.orderUnits = null;
+        this.aisleUnits = null;
+        this.itemOrderStart = null;
+        this.itemOrders = null;
+        this.itemOrderQuantities = null;
+        this.itemAisleStart = null;
+        this.itemAisles = null;
+        this.itemAisleQuantities = null;
+    }
+
+    /*
+     * Counting sort por item: as linhas de cada item saem em ordem crescente
+     */
+    private static void transpose(int[] start, int[] items, int[] quantities,
+                                  int[] itemStart, int[] rows, int[] rowQuantities) {
+        for (int item : items) {
+            itemStart[item + 1]++;
+        }
+        for (int i = 0; i + 1 < itemStart.length; i++) {
+            itemStart[i + 1] += itemStart[i];
+        }
+        int[] next = Arrays.copyOf(itemStart, itemStart.length - 1);
+        for (int r = 0; r + 1 < start.length; r++) {
+            for (int k = start[r]; k < start[r + 1]; k++) {
+                int position = next[items[k]]++;
+                rows[position] = r;
+                rowQuantities[position] = quantities[k];
+            }
+        }
+    }
+
+    private static int countEntries(List<Map<Integer, Integer>> rows) {
+        int total = 0;
+        for (Map<Integer, Integer> row : rows) {
+            total += row.size();
+        }
+        return total;
+    }
+
+    private static void fill(List<Map<Integer, Integer>> rows, int[] start, int[] items, int[] quantities, int[] units) {
+        int k = 0;
+        for (int r = 0; r < rows.size(); r++) {
+            start[r] = k;
+            int[] keys = new int[rows.get(r).size()];
+            int j = 0;
+            for (int item : rows.get(r).keySet()) {
+                keys[j++] = item;
+            }
+            Arrays.sort(keys);
+            for (int item : keys) {
+                int quantity = rows.get(r).get(item);
+                items[k] = item;
+                quantities[k] = quantity;
+                units[r] += quantity;
+                k++;
+            }
+        }
+        start[rows.size()] = k;
+    }
+
+    public int nItems() {
+        return nItems;
+    }
+
+    public int nOrders() {
+        return orderUnits.length;
+    }
+
+    public int nAisles() {
+        return aisleUnits.length;
+    }
+
+    public int orderBegin(int order) {
+        return orderStart[order];
+    }
+
+    public int orderEnd(int order) {
+        return orderStart[order + 1];
+    }
+
+    public int orderItem(int k) {
+        return orderItems[k];
+    }
+
+    public int orderQuantity(int k) {
+        return orderQuantities[k];
+    }
+
+    public int orderUnits(int order) {
+        return orderUnits[order];
+    }
+
+    public int aisleBegin(int aisle) {
+        return aisleStart[aisle];
+    }
+
+    public int aisleEnd(int aisle) {
+        return aisleStart[aisle + 1];
+    }
+
+    public int aisleItem(int k) {
+        return aisleItems[k];
+    }
+
+    public int aisleQuantity(int k) {
+        return aisleQuantities[k];
+    }
+
+    /*
+     * Kernels de ItemKernels sobre uma linha de pedido ou de corredor (WaveState, presolve).
+     * MappedInstance nao tem as linhas no heap e sobrescreve com a versao sobre os buffers
+     */
+    int orderMinSlack(int[] slack, int order) {
+        return ItemKernels.minSlack(slack, orderItems, orderQuantities, orderStart[order], orderStart[order + 1]);
+    }
+
+    int addOrderRow(int[] slack, int order, int sign) {
+        return ItemKernels.addRow(slack, orderItems, orderQuantities, orderStart[order], orderStart[order + 1], sign);
+    }
+
+    int aisleMinSlack(int[] slack, int aisle) {
+        return ItemKernels.minSlack(slack, aisleItems, aisleQuantities, aisleStart[aisle], aisleStart[aisle + 1]);
+    }
+
+    int addAisleRow(int[] slack, int aisle, int sign) {
+        return ItemKernels.addRow(slack, aisleItems, aisleQuantities, aisleStart[aisle], aisleStart[aisle + 1], sign);
+    }
+
+    /*
+     * Vetores CSR crus para o KernelBenchmark; nulos na MappedInstance; nao modificar
+     */
+    int[] orderItems() {
+        return orderItems;
+    }
+
+    int[] orderQuantities() {
+        return orderQuantities;
+    }
+
+    int[] aisleItems() {
+        return aisleItems;
+    }
+
+    int[] aisleQuantities() {
+        return aisleQuantities;
+    }
+
+    public int aisleUnits(int aisle) {
+        return aisleUnits[aisle];
+    }
+
+    public int itemOrderBegin(int item) {
+        return itemOrderStart[item];
+    }
+
+    public int itemOrderEnd(int item) {
+        return itemOrderStart[item + 1];
+    }
+
+    public int itemOrder(int k) {
+        return itemOrders[k];
+    }
+
+    public int itemOrderQuantity(int k) {
+        return itemOrderQuantities[k];
+    }
+
+    public int itemAisleBegin(int item) {
+        return itemAisleStart[item];
+    }
+
+    public int itemAisleEnd(int item) {
+        return itemAisleStart[item + 1];
+    }
+
+    public int itemAisle(int k) {
+        return itemAisles[k];
+    }
+
+    public int itemAisleQuantity(int k) {
+        return itemAisleQuantities[k];
+    }
+}
@@ -0,0 +1,301 @@
+package org.sbpo2025.challenge;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Ajusta uma tabela de StrategyRules a execucoes do --benchmark (--calibrate=<csv>,...).
+ * Uma estrategia e o que o benchmark rodou: um backend (--backends) ou um conjunto de
+ * opcoes (--strategies: backend, fatias de tempo dos workers, thread-split, ...), e a
+ * regra aplica exatamente essas opcoes. Cada instancia da entrada que aparece nos CSVs vira
+ * um ponto com as suas features e, por estrategia, a nota objetivo / melhor objetivo da
+ * instancia. Para cada feature, uma programacao dinamica divide as instancias ordenadas em
+ * ate MAX_SEGMENTS faixas (com pelo menos MIN_SEGMENT instancias) e da a cada faixa a
+ * estrategia de maior nota somada; uma faixa a mais so entra se ganhar MIN_GAIN, para nao
+ * seguir ruido de uma instancia. Pelo mesmo motivo, numa faixa a estrategia preferida so
+ * perde se a outra ganhar mais que MIN_GAIN: primeiro as de backend exato (MIP), depois o
+ * kernel search e por ultimo a heuristica. Com nota igual, a divisao (e a feature) que
+ * deixa mais instancias com estrategias preferidas ganha, entao empates vao para o MIP.
+ * Fica a feature de maior nota total e a tabela resultante vai para <outputFilePath>.
+ */
+public class StrategyCalibration {
+    private static final int MAX_SEGMENTS = 3;
+    private static final int MIN_SEGMENT = 2;
+    // Nota minima (em instancias) que uma faixa a mais precisa ganhar
+    private static final double MIN_GAIN = 0.01;
+    private static final List<String> EXACT_BACKENDS = List.of("sat", "cpsat", "scip", "cbc");
+
+    private final RunOptions options;
+
+    public StrategyCalibration(RunOptions options) {
+        this.options = options;
+    }
+
+    public void run() {
+        Map<String, Map<String, Double>> results = readResults(options.calibrate);
+        List<String> strategies = new ArrayList<>(strategies(results));
+        // segmentBest fica com a primeira em caso de empate
+        strategies.sort(Comparator.comparingInt(StrategyCalibration::tieRank).thenComparing(Comparator.naturalOrder()));
+        List<String> names = new ArrayList<>();
+        List<InstanceFeatures> features = new ArrayList<>();
+        for (File file : BackendBenchmark.listInstances(options.inputPath)) {
+            String instanceName = file.getParentFile().getName() + "/" + file.getName();
+            if (!results.containsKey(instanceName)) {
+                continue;
+            }
+            Challenge challenge = new Challenge();
+            challenge.readInput(file.getPath());
+            ChallengeSolver solver = challenge.newSolver(options);
+            long start = System.nanoTime();
+            InstanceFeatures instanceFeatures = InstanceFeatures.extract(solver.instance, solver.waveSizeUB);
+            System.out.printf("%-28s %.1f ms  %s%n", instanceName, (System.nanoTime() - start) / 1e6,
+                    instanceFeatures.describe());
+            names.add(instanceName);
+            features.add(instanceFeatures);
+        }
+        if (names.isEmpty() || strategies.isEmpty()) {
+            System.err.println("Calibration: no instance of " + options.inputPath + " appears in " + options.calibrate);
+            return;
+        }
+
+        // Nota de cada estrategia por instancia: objetivo / melhor objetivo (falha = 0)
+        double[][] score = new double[names.size()][strategies.size()];
+        for (int i = 0; i < names.size(); i++) {
+            Map<String, Double> row = results.get(names.get(i));
+            double best = row.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+            for (int s = 0; s < strategies.size(); s++) {
+                double objective = row.getOrDefault(strategies.get(s), 0.0);
+                score[i][s] = best > 0 ? objective / best : 1;
+            }
+        }
+
+        int[] rank = new int[strategies.size()];
+        for (int s = 0; s < rank.length; s++) {
+            rank[s] = tieRank(strategies.get(s));
+        }
+        Fit best = null;
+        for (String feature : InstanceFeatures.NAMES) {
+            Fit fit = fit(feature, features, score, rank);
+            if (best == null || better(fit.total(), fit.preference(), best.total(), best.preference())) {
+                best = fit;
+            }
+        }
+
+        int n = names.size();
+        for (int s = 0; s < strategies.size(); s++) {
+            double total = 0;
+            for (int i = 0; i < n; i++) {
+                total += score[i][s];
+            }
+            System.out.printf("Always %-40s %.4f%n", strategies.get(s), total / n);
+        }
+        System.out.printf("Fitted rules %-34s %.4f (oracle 1.0000) on %s%n", "", best.total() / n, best.feature());
+
+        List<StrategyRules.Rule> rules = new ArrayList<>();
+        for (int k = 0; k < best.strategies().length; k++) {
+            List<StrategyRules.Condition> conditions = k + 1 < best.strategies().length
+                    ? List.of(new StrategyRules.Condition(best.feature(), "<", best.thresholds()[k])) : List.of();
+            rules.add(new StrategyRules.Rule(conditions, RunOptions.strategyFlags(strategies.get(best.strategies()[k]))));
+        }
+        String table = new StrategyRules(rules).format();
+        System.out.print(table);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(options.outputPath))) {
+            writer.write(String.format("# --calibrate=%s on %d instances: %.4f of the per-instance best (always-best single strategy: %.4f)%n",
+                    options.calibrate, n, best.total() / n, bestSingle(score) / n));
+            writer.write(table);
+            System.out.println("Strategy rules written to " + options.outputPath);
+        } catch (IOException e) {
+            System.err.println("Error writing strategy rules to " + options.outputPath);
+            e.printStackTrace();
+        }
+    }
+
+    private record Fit(String feature, double total, double preference, double[] thresholds, int[] strategies) {
+    }
+
+    /*
+     * Maior nota; com nota igual, mais instancias com estrategias preferidas
+     */
+    private static boolean better(double total, double preference, double otherTotal, double otherPreference) {
+        return total > otherTotal + 1e-9 || (total >= otherTotal - 1e-9 && preference > otherPreference);
+    }
+
+    /*
+     * Melhor divisao em faixas da feature; segmentos com o mesmo backend vizinhos sao unidos
+     */
+    private static Fit fit(String feature, List<InstanceFeatures> features, double[][] score, int[] rank) {
+        int n = features.size();
+        int nStrategies = score[0].length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(features.get(a).get(feature), features.get(b).get(feature)));
+        double[] value = new double[n];
+        double[][] prefix = new double[n + 1][nStrategies];
+        for (int j = 0; j < n; j++) {
+            value[j] = features.get(order[j]).get(feature);
+            for (int s = 0; s < nStrategies; s++) {
+                prefix[j + 1][s] = prefix[j][s] + score[order[j]][s];
+            }
+        }
+
+        // total[k][j]: melhor nota das j primeiras instancias em k faixas; preference[k][j]
+        // desempata pelas instancias com estrategias preferidas (2 exata, 1 kernel, 0 heuristica)
+        double[][] total = new double[MAX_SEGMENTS + 1][n + 1];
+        double[][] preference = new double[MAX_SEGMENTS + 1][n + 1];
+        int[][] cut = new int[MAX_SEGMENTS + 1][n + 1];
+        for (double[] row : total) {
+            Arrays.fill(row, Double.NEGATIVE_INFINITY);
+        }
+        total[0][0] = 0;
+        for (int k = 1; k <= MAX_SEGMENTS; k++) {
+            for (int j = 1; j <= n; j++) {
+                for (int i = 0; i < j; i++) {
+                    // So corta entre valores distintos e com faixas de tamanho minimo
+                    boolean valid = total[k - 1][i] > Double.NEGATIVE_INFINITY
+                            && (i == 0 || value[i - 1] < value[i])
+                            && (j - i >= MIN_SEGMENT || (i == 0 && j == n));
+                    if (!valid) {
+                        continue;
+                    }
+                    double[] segment = segmentBest(prefix, i, j);
+                    double candidate = total[k - 1][i] + segment[1];
+                    double candidatePreference = preference[k - 1][i] + (2 - rank[(int) segment[0]]) * (j - i);
+                    if (better(candidate, candidatePreference, total[k][j], preference[k][j])) {
+                        total[k][j] = candidate;
+                        preference[k][j] = candidatePreference;
+                        cut[k][j] = i;
+                    }
+                }
+            }
+        }
+        // Faixa a mais: ganha MIN_GAIN ou, sem perder nota, passa instancias para a preferida
+        int segments = 1;
+        for (int k = 2; k <= MAX_SEGMENTS; k++) {
+            if (total[k][n] > total[segments][n] + MIN_GAIN
+                    || (total[k][n] >= total[segments][n] - 1e-9 && preference[k][n] > preference[segments][n])) {
+                segments = k;
+            }
+        }
+
+        List<Double> thresholds = new ArrayList<>();
+        List<Integer> chosen = new ArrayList<>();
+        int[] bounds = new int[segments + 1];
+        bounds[segments] = n;
+        for (int k = segments, j = n; k >= 1; k--) {
+            j = cut[k][j];
+            bounds[k - 1] = j;
+        }
+        for (int k = 0; k < segments; k++) {
+            int strategy = (int) segmentBest(prefix, bounds[k], bounds[k + 1])[0];
+            if (!chosen.isEmpty() && chosen.get(chosen.size() - 1) == strategy) {
+                thresholds.remove(thresholds.size() - 1);
+            } else {
+                chosen.add(strategy);
+            }
+            if (k + 1 < segments) {
+                thresholds.add((value[bounds[k + 1] - 1] + value[bounds[k + 1]]) / 2);
+            }
+        }
+        return new Fit(feature, total[segments][n], preference[segments][n], thresholds.stream().mapToDouble(Double::doubleValue).toArray(),
+                chosen.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /*
+     * {estrategia, nota} da faixa [i, j) da ordem: a de maior nota somada, salvo se uma
+     * preferida nos empates (vem antes na lista) ficar a menos de MIN_GAIN dela
+     */
+    private static double[] segmentBest(double[][] prefix, int i, int j) {
+        int best = 0;
+        for (int s = 1; s < prefix[0].length; s++) {
+            if (prefix[j][s] - prefix[i][s] > prefix[j][best] - prefix[i][best] + 1e-9) {
+                best = s;
+            }
+        }
+        for (int s = 0; s < best; s++) {
+            if (prefix[j][s] - prefix[i][s] >= prefix[j][best] - prefix[i][best] - MIN_GAIN) {
+                best = s;
+                break;
+            }
+        }
+        return new double[] {best, prefix[j][best] - prefix[i][best]};
+    }
+
+    /*
+     * Ordem de preferencia nos empates: backend exato, kernel search, heuristica
+     */
+    private static int tieRank(String strategy) {
+        String backend = SolverBackends.DEFAULT;
+        for (String flag : RunOptions.strategyFlags(strategy)) {
+            if (flag.startsWith("--backend=")) {
+                backend = flag.substring("--backend=".length());
+            }
+        }
+        if (EXACT_BACKENDS.contains(backend)) {
+            return 0;
+        }
+        return backend.equals("heuristic") ? 2 : 1;
+    }
+
+    private static double bestSingle(double[][] score) {
+        double best = 0;
+        for (int s = 0; s < score[0].length; s++) {
+            double total = 0;
+            for (double[] row : score) {
+                total += row[s];
+            }
+            best = Math.max(best, total);
+        }
+        return best;
+    }
+
+    private static Set<String> strategies(Map<String, Map<String, Double>> results) {
+        Set<String> strategies = new LinkedHashSet<>();
+        for (Map<String, Double> row : results.values()) {
+            strategies.addAll(row.keySet());
+        }
+        return strategies;
+    }
+
+    /*
+     * instancia -> estrategia -> objetivo, das linhas "ok" dos CSVs do --benchmark (o maior
+     * objetivo, se a mesma combinacao aparecer mais de uma vez)
+     */
+    private static Map<String, Map<String, Double>> readResults(String paths) {
+        Map<String, Map<String, Double>> results = new HashMap<>();
+        for (String path : paths.split(",")) {
+            try (BufferedReader reader = Files.newBufferedReader(Paths.get(path))) {
+                String header = reader.readLine();
+                if (header == null || !header.startsWith("instance,backend,objective")) {
+                    throw new IllegalArgumentException(path + " is not a --benchmark CSV");
+                }
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    List<String> fields = BackendBenchmark.splitCsv(line);
+                    if (fields.size() < 5) {
+                        continue;
+                    }
+                    double objective = fields.get(4).equals("ok") ? Double.parseDouble(fields.get(2)) : 0;
+                    results.computeIfAbsent(fields.get(0), k -> new HashMap<>())
+                            .merge(fields.get(1).strip(), objective, Math::max);
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read benchmark results " + path, e);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,153 @@
+package org.sbpo2025.challenge;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * Tabela de regras caracteristicas -> estrategia (--auto[=<arquivo>]). Uma regra por linha,
+ * a primeira que casar vale:
+ *   <condicao> && <condicao> ... -> <opcoes da linha de comando>
+ * com condicao "<feature> <op> <numero>" (op: <, <=, >, >=; features de InstanceFeatures)
+ * ou "*" para sempre. As opcoes sao as mesmas da linha de comando (backend, workers,
+ * thread-split, time-limit, fixing, ...), e as passadas explicitamente prevalecem.
+ * Linhas vazias e comentarios (#) sao ignorados. --calibrate gera uma tabela a partir
+ * de execucoes do --benchmark (StrategyCalibration).
+ */
+public class StrategyRules {
+    /*
+     * Tabela padrao: --calibrate sobre --benchmark --strategies com 10 s por execucao nos
+     * datasets a e b, numa maquina de 1 nucleo (por isso sem thread-split). Kernel search com
+     * tabu, path relinking e GA ganhou ou empatou em todas; nas instancias pequenas todas as
+     * estrategias com workers empataram e o empate vai para o MIP.
+     */
+    static final String DEFAULT = String.join("\n",
+            "items < 2546.50 -> --backend=sat --workers=tabu:0.25",
+            "* -> --backend=kernel --workers=tabu:0.25,relink:0.25,ga:0.25");
+
+    record Condition(String feature, String op, double value) {
+        boolean test(InstanceFeatures features) {
+            double x = features.get(feature);
+            switch (op) {
+                case "<":
+                    return x < value;
+                case "<=":
+                    return x <= value;
+                case ">":
+                    return x > value;
+                default:
+                    return x >= value;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return feature + " " + op + " " + formatNumber(value);
+        }
+    }
+
+    public record Rule(List<Condition> conditions, List<String> flags) {
+        boolean matches(InstanceFeatures features) {
+            for (Condition condition : conditions) {
+                if (!condition.test(features)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            List<String> parts = new ArrayList<>();
+            for (Condition condition : conditions) {
+                parts.add(condition.toString());
+            }
+            return (parts.isEmpty() ? "*" : String.join(" && ", parts)) + " -> " + String.join(" ", flags);
+        }
+    }
+
+    private final List<Rule> rules;
+
+    public StrategyRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    /*
+     * Arquivo de regras ou, com o caminho vazio, a tabela padrao
+     */
+    public static StrategyRules load(String path) {
+        if (path == null || path.isEmpty()) {
+            return parse(DEFAULT);
+        }
+        try {
+            return parse(Files.readString(Paths.get(path)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read strategy rules " + path, e);
+        }
+    }
+
+    public static StrategyRules parse(String text) {
+        List<Rule> rules = new ArrayList<>();
+        String[] lines = text.split("\n");
+        for (int n = 0; n < lines.length; n++) {
+            String line = lines[n].strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int arrow = line.indexOf("->");
+            if (arrow < 0) {
+                throw new IllegalArgumentException("Strategy rule " + (n + 1) + " has no '->': " + line);
+            }
+            List<Condition> conditions = new ArrayList<>();
+            String left = line.substring(0, arrow).strip();
+            if (!left.equals("*")) {
+                for (String part : left.split("&&")) {
+                    String[] tokens = part.strip().split("\\s+");
+                    if (tokens.length != 3 || !List.of("<", "<=", ">", ">=").contains(tokens[1])) {
+                        throw new IllegalArgumentException("Strategy rule " + (n + 1) + " has a bad condition: " + part);
+                    }
+                    if (!InstanceFeatures.NAMES.contains(tokens[0])) {
+                        throw new IllegalArgumentException("Strategy rule " + (n + 1) + " uses unknown feature "
+                                + tokens[0] + " (expected one of " + InstanceFeatures.NAMES + ")");
+                    }
+                    conditions.add(new Condition(tokens[0], tokens[1], Double.parseDouble(tokens[2])));
+                }
+            }
+            String right = line.substring(arrow + 2).strip();
+            List<String> flags = right.isEmpty() ? List.of() : Arrays.asList(right.split("\\s+"));
+            rules.add(new Rule(conditions, flags));
+        }
+        return new StrategyRules(rules);
+    }
+
+    /*
+     * Primeira regra que casa; null se nenhuma casar
+     */
+    public Rule select(InstanceFeatures features) {
+        for (Rule rule : rules) {
+            if (rule.matches(features)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    public String format() {
+        StringBuilder builder = new StringBuilder();
+        for (Rule rule : rules) {
+            builder.append(rule).append('\n');
+        }
+        return builder.toString();
+    }
+
+    static String formatNumber(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return String.valueOf((long) value);
+        }
+        return String.format(Locale.ROOT, "%.6g", value);
+    }
+}
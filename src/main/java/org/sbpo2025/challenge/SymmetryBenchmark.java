@@ -0,0 +1,82 @@
+package org.sbpo2025.challenge;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.ortools.linearsolver.MPSolver;
+
+/*
+ * Resolve cada instancia no SCIP (que informa os nos explorados) com e sem as restricoes
+ * de AisleSymmetry, partindo do mesmo hint canonico da gulosa, e tabula nos, tempo,
+ * objetivo e status. Input: diretorios/arquivos separados por virgula; output: CSV.
+ */
+public class SymmetryBenchmark {
+    private static final long DEFAULT_TIME_LIMIT_MILLIS = 30_000;
+
+    private final RunOptions options;
+
+    public SymmetryBenchmark(RunOptions options) {
+        this.options = options;
+    }
+
+    public void run() {
+        List<File> instances = BackendBenchmark.listInstances(options.inputPath);
+        long timeLimitMillis = options.timeLimitMillis >= 0 ? options.timeLimitMillis : DEFAULT_TIME_LIMIT_MILLIS;
+
+        List<String> rows = new ArrayList<>();
+        rows.add("instance,classes,symmetric,dominance,symmetry,nodes,time_ms,objective,status");
+        System.out.printf("%-28s %7s %9s %9s  %-5s %10s %9s %12s  %s%n",
+                "instance", "classes", "symmetric", "dominance", "rows", "nodes", "time_ms", "objective", "status");
+        for (File file : instances) {
+            String instanceName = file.getParentFile().getName() + "/" + file.getName();
+            Challenge challenge = new Challenge();
+            challenge.readInput(file.getPath());
+            ChallengeSolver solver = challenge.newSolver(options);
+            boolean[] servable = solver.findServableOrders();
+            SparseInstance instance = solver.instance;
+            AisleSymmetry symmetry = new AisleSymmetry(instance, servable);
+            CompactSolution hint = symmetry.canonicalize(
+                    new GreedyHeuristic(instance, servable, solver.waveSizeLB, solver.waveSizeUB).run());
+
+            for (boolean enabled : new boolean[] {false, true}) {
+                MpSolverBackend backend = new MpSolverBackend("SCIP", WaveModel.BuildMode.DIRECT, false);
+                backend.setSymmetry(enabled);
+                try {
+                    backend.buildModel(instance, servable, solver.waveSizeLB, solver.waveSizeUB);
+                    backend.setHint(hint);
+                    MPSolver mpSolver = backend.model().solver();
+                    mpSolver.setTimeLimit(timeLimitMillis);
+                    long start = System.currentTimeMillis();
+                    MPSolver.ResultStatus status = mpSolver.solve();
+                    long elapsed = System.currentTimeMillis() - start;
+                    boolean solved = status == MPSolver.ResultStatus.OPTIMAL || status == MPSolver.ResultStatus.FEASIBLE;
+                    double objective = solved ? mpSolver.objective().value() : Double.NaN;
+
+                    rows.add(String.format("%s,%d,%d,%d,%b,%d,%d,%.4f,%s", instanceName, symmetry.classCount(),
+                            symmetry.symmetricAisles(), symmetry.dominancePairs(), enabled, mpSolver.nodes(), elapsed,
+                            objective, status));
+                    System.out.printf("%-28s %7d %9d %9d  %-5s %10d %9d %12.2f  %s%n", instanceName,
+                            symmetry.classCount(), symmetry.symmetricAisles(), symmetry.dominancePairs(),
+                            enabled ? "on" : "off", mpSolver.nodes(), elapsed, objective, status);
+                } finally {
+                    backend.close();
+                }
+            }
+        }
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(options.outputPath))) {
+            for (String row : rows) {
+                writer.write(row);
+                writer.newLine();
+            }
+            System.out.println("Symmetry benchmark written to " + options.outputPath);
+        } catch (IOException e) {
+            System.err.println("Error writing symmetry benchmark to " + options.outputPath);
+            e.printStackTrace();
+        }
+    }
+}
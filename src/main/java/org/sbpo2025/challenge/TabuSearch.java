@@ -0,0 +1,302 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/*
+ * Busca tabu sobre o conjunto de corredores abertos. Movimentos: abrir um corredor,
+ * fechar um corredor ou trocar um aberto por um fechado. Depois de cada movimento os
+ * pedidos sao reempacotados por uma gulosa de mochila multidimensional sobre as folgas
+ * do WaveState (pedidos em ordem de densidade, cada um entra se couber). A cada iteracao
+ * avalia uma amostra da vizinhanca e aplica o melhor movimento nao tabu; um movimento
+ * tabu so e aceito se bater o melhor ja encontrado (aspiracao). Corredor fechado fica
+ * proibido de reabrir por ~sqrt(corredores) iteracoes (10 a 22 para 100 a 500
+ * corredores) e corredor aberto fica proibido de fechar pela metade disso.
+ */
+public class TabuSearch implements SearchWorker {
+    private static final long SEED = 20250503L;
+    private static final int MIN_TENURE = 5;
+
+    private final SparseInstance instance;
+    private final boolean[] servable;
+    private final int waveSizeLB;
+    private final int waveSizeUB;
+    private final WaveState state;
+    private final int[] priority;
+    private final SplittableRandom random = new SplittableRandom(SEED);
+
+    // Pedidos na solucao corrente e copia para desfazer a avaliacao de um movimento
+    private final int[] packed;
+    private int nPacked;
+    private final int[] saved;
+    private int nSaved;
+
+    // Listas de corredores abertos/fechados com posicao, para sortear e trocar em O(1)
+    private final int[] open;
+    private final int[] closed;
+    private final int[] position;
+    private int nOpen;
+
+    private final long[] tabuOpenUntil;
+    private final long[] tabuCloseUntil;
+    private final int tenure;
+    private final int sample;
+
+    public TabuSearch(SparseInstance instance, boolean[] servable, int waveSizeLB, int waveSizeUB) {
+        this.instance = instance;
+        this.servable = servable;
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+        this.state = new WaveState(instance, waveSizeLB, waveSizeUB);
+        this.priority = densityOrder(instance, servable);
+        this.packed = new int[priority.length];
+        this.saved = new int[priority.length];
+
+        int nAisles = instance.nAisles();
+        this.open = new int[nAisles];
+        this.closed = new int[nAisles];
+        this.position = new int[nAisles];
+        this.tabuOpenUntil = new long[nAisles];
+        this.tabuCloseUntil = new long[nAisles];
+        this.tenure = Math.max(MIN_TENURE, (int) Math.sqrt(nAisles));
+        this.sample = Math.max(8, (int) Math.sqrt(nAisles));
+    }
+
+    @Override
+    public String name() {
+        return "tabu";
+    }
+
+    /*
+     * Densidade de mochila multidimensional: unidades / sum(q_i / estoque total do item i),
+     * ou seja, pedidos que usam itens abundantes primeiro
+     */
+    static int[] densityOrder(SparseInstance instance, boolean[] servable) {
+        long[] stock = new long[instance.nItems()];
+        for (int k = 0; k < instance.aisleBegin(instance.nAisles()); k++) {
+            stock[instance.aisleItem(k)] += instance.aisleQuantity(k);
+        }
+        int count = 0;
+        double[] density = new double[instance.nOrders()];
+        for (int o = 0; o < instance.nOrders(); o++) {
+            if (!servable[o]) {
+                continue;
+            }
+            double weight = 0;
+            for (int k = instance.orderBegin(o); k < instance.orderEnd(o); k++) {
+                weight += (double) instance.orderQuantity(k) / stock[instance.orderItem(k)];
+            }
+            density[o] = instance.orderUnits(o) / weight;
+            count++;
+        }
+        Integer[] orders = new Integer[count];
+        for (int o = 0, n = 0; o < instance.nOrders(); o++) {
+            if (servable[o]) {
+                orders[n++] = o;
+            }
+        }
+        Arrays.sort(orders, (a, b) -> Double.compare(density[b], density[a]));
+        int[] result = new int[count];
+        for (int k = 0; k < count; k++) {
+            result[k] = orders[k];
+        }
+        return result;
+    }
+
+    @Override
+    public void run(long timeLimitMillis, Incumbent incumbent) {
+        long deadline = System.currentTimeMillis() + timeLimitMillis;
+        CompactSolution start = incumbent.best();
+        if (start == null) {
+            start = new GreedyHeuristic(instance, servable, waveSizeLB, waveSizeUB).run();
+        }
+        if (start == null || priority.length == 0) {
+            return;
+        }
+        load(start);
+        double bestScore = score();
+        CompactSolution best = state.toSolution();
+
+        long iteration = 0;
+        long lastImprovement = 0;
+        while (System.currentTimeMillis() < deadline) {
+            iteration++;
+            int bestOut = -1;
+            int bestIn = -1;
+            double bestMoveScore = Double.NEGATIVE_INFINITY;
+            int nClosed = instance.nAisles() - nOpen;
+
+            for (int s = 0; s < 3 * sample; s++) {
+                int kind = s % 3;
+                int in = -1;
+                int out = -1;
+                if (kind != 1 && nClosed > 0) {
+                    in = closed[random.nextInt(nClosed)];
+                }
+                if (kind != 0 && nOpen > 1) {
+                    out = open[random.nextInt(nOpen)];
+                }
+                if ((kind == 0 && in < 0) || (kind == 1 && out < 0) || (kind == 2 && (in < 0 || out < 0))) {
+                    continue;
+                }
+                double moveScore = evaluate(out, in);
+                boolean tabu = (in >= 0 && tabuOpenUntil[in] > iteration)
+                        || (out >= 0 && tabuCloseUntil[out] > iteration);
+                if (tabu && moveScore <= bestScore + 1e-9) {
+                    continue;
+                }
+                if (moveScore > bestMoveScore) {
+                    bestMoveScore = moveScore;
+                    bestOut = out;
+                    bestIn = in;
+                }
+            }
+            if (bestOut < 0 && bestIn < 0) {
+                continue;
+            }
+
+            applyMove(bestOut, bestIn);
+            if (bestIn >= 0) {
+                tabuCloseUntil[bestIn] = iteration + tenure / 2 + random.nextInt(tenure / 2 + 1);
+            }
+            if (bestOut >= 0) {
+                tabuOpenUntil[bestOut] = iteration + tenure + random.nextInt(tenure / 2 + 1);
+            }
+
+            if (bestMoveScore > bestScore + 1e-9) {
+                bestScore = bestMoveScore;
+                best = state.toSolution();
+                lastImprovement = iteration;
+                incumbent.offer(best, name());
+            } else if (iteration - lastImprovement > 4L * tenure) {
+                // Estagnou: volta para a melhor solucao e perturba com algumas trocas aleatorias
+                load(best);
+                for (int k = 0; k < 2 + random.nextInt(3) && nOpen > 1 && nOpen < instance.nAisles(); k++) {
+                    applyMove(open[random.nextInt(nOpen)], closed[random.nextInt(instance.nAisles() - nOpen)]);
+                }
+                lastImprovement = iteration;
+            }
+        }
+        System.out.printf("Tabu: %d iterations, best %.4f%n", iteration, bestScore);
+    }
+
+    /*
+     * Razao unidades/corredores das solucoes viaveis; abaixo do LB, o quanto falta (negativo)
+     */
+    private double score() {
+        if (state.aisleCount() == 0 || state.units() == 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (state.units() < waveSizeLB) {
+            return state.units() - waveSizeLB;
+        }
+        return state.ratio();
+    }
+
+    private void load(CompactSolution solution) {
+        state.clear();
+        nOpen = 0;
+        for (int a = 0; a < instance.nAisles(); a++) {
+            position[a] = -1;
+        }
+        for (int k = 0; k < solution.aisleCount(); k++) {
+            int aisle = solution.aisle(k);
+            state.addAisle(aisle);
+            position[aisle] = nOpen;
+            open[nOpen++] = aisle;
+        }
+        int nClosed = 0;
+        for (int a = 0; a < instance.nAisles(); a++) {
+            if (position[a] < 0) {
+                position[a] = nClosed;
+                closed[nClosed++] = a;
+            }
+        }
+        nPacked = 0;
+        for (int k = 0; k < solution.orderCount(); k++) {
+            state.addOrder(solution.order(k));
+            packed[nPacked++] = solution.order(k);
+        }
+    }
+
+    /*
+     * Pontua o movimento e desfaz: os pedidos salvos voltam sem checagem
+     */
+    private double evaluate(int out, int in) {
+        System.arraycopy(packed, 0, saved, 0, nPacked);
+        nSaved = nPacked;
+        moveAisles(out, in);
+        repack();
+        double moveScore = score();
+
+        for (int k = 0; k < nPacked; k++) {
+            state.removeOrder(packed[k]);
+        }
+        moveAisles(in, out);
+        for (int k = 0; k < nSaved; k++) {
+            state.addOrder(saved[k]);
+            packed[k] = saved[k];
+        }
+        nPacked = nSaved;
+        return moveScore;
+    }
+
+    private void applyMove(int out, int in) {
+        moveAisles(out, in);
+        repack();
+        if (in >= 0) {
+            swapList(in, true);
+        }
+        if (out >= 0) {
+            swapList(out, false);
+        }
+    }
+
+    private void moveAisles(int out, int in) {
+        if (in >= 0) {
+            state.addAisle(in);
+        }
+        if (out >= 0) {
+            state.removeAisle(out);
+        }
+    }
+
+    /*
+     * Move o corredor entre as listas de abertos e fechados (remocao por troca com o ultimo)
+     */
+    private void swapList(int aisle, boolean opening) {
+        int nClosed = instance.nAisles() - nOpen;
+        int[] from = opening ? closed : open;
+        int size = opening ? nClosed : nOpen;
+        int last = from[size - 1];
+        from[position[aisle]] = last;
+        position[last] = position[aisle];
+        if (opening) {
+            position[aisle] = nOpen;
+            open[nOpen++] = aisle;
+        } else {
+            nOpen--;
+            position[aisle] = nClosed;
+            closed[nClosed] = aisle;
+        }
+    }
+
+    /*
+     * Gulosa de mochila multidimensional: esvazia e recoloca os pedidos por densidade
+     */
+    private void repack() {
+        for (int k = 0; k < nPacked; k++) {
+            state.removeOrder(packed[k]);
+        }
+        nPacked = 0;
+        for (int order : priority) {
+            if (state.units() >= waveSizeUB) {
+                break;
+            }
+            if (state.canAddOrder(order)) {
+                state.addOrder(order);
+                packed[nPacked++] = order;
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.sbpo2025.challenge;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/*
+ * Orcamento de threads da execucao. Detecta os processadores disponiveis respeitando a
+ * cota de CPU do container (cgroup v2 cpu.max ou v1 cfs_quota/cfs_period, alem do que a
+ * propria JVM reporta) e divide entre o backend MIP e os workers de heuristica. A leitura
+ * da entrada acontece antes do solve e usa todos os nucleos (total), sem fatia propria.
+ * Tambem mede a utilizacao de CPU do processo para o relatorio final.
+ */
+public class ThreadBudget {
+    private final int total;
+    private final int mipThreads;
+    private final int heuristicThreads;
+    private final long startWallNanos;
+    private final long startCpuNanos;
+
+    public ThreadBudget(int total, int mipThreads, int heuristicThreads) {
+        this(total, mipThreads, heuristicThreads, System.nanoTime(), processCpuNanos());
+    }
+
+    private ThreadBudget(int total, int mipThreads, int heuristicThreads, long startWallNanos, long startCpuNanos) {
+        this.total = Math.max(total, 1);
+        this.mipThreads = Math.max(mipThreads, 1);
+        this.heuristicThreads = Math.max(heuristicThreads, 0);
+        this.startWallNanos = startWallNanos;
+        this.startCpuNanos = startCpuNanos;
+    }
+
+    /*
+     * Divisao padrao: heuristicas com 1/4 do total (pelo menos 1 a partir de 2 nucleos) e
+     * o MIP com o restante
+     */
+    public static ThreadBudget split(int total) {
+        int heuristic = total >= 2 ? Math.max(1, total / 4) : 0;
+        return new ThreadBudget(total, Math.max(1, total - heuristic), heuristic);
+    }
+
+    /*
+     * Formato "mip,heuristica" com contagens absolutas
+     */
+    public static ThreadBudget parseSplit(int total, String split) {
+        String[] parts = split.split(",");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Thread split must be <mip>,<heuristic>: " + split);
+        }
+        int mip = Integer.parseInt(parts[0].trim());
+        int heuristic = Integer.parseInt(parts[1].trim());
+        // Mais threads que nucleos so gera disputa dentro da cota do container
+        if (mip < 1 || heuristic < 0 || mip + heuristic > Math.max(total, 1)) {
+            throw new IllegalArgumentException("Thread split " + split + " does not fit in " + total + " threads");
+        }
+        return new ThreadBudget(total, mip, heuristic);
+    }
+
+    /*
+     * Nova divisao ("mip,heuristica", ou null para a padrao) que continua medindo desde o
+     * inicio deste orcamento, para o relatorio incluir a leitura e a extracao de features
+     * feitas antes de uma regra do --auto ou estrategia do --benchmark trocar a divisao
+     */
+    public ThreadBudget resplit(int total, String threadSplit) {
+        ThreadBudget budget = threadSplit == null ? split(total) : parseSplit(total, threadSplit);
+        return new ThreadBudget(budget.total, budget.mipThreads, budget.heuristicThreads,
+                startWallNanos, startCpuNanos);
+    }
+
+    public static int availableProcessors() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int quota = containerCpuQuota();
+        return quota > 0 ? Math.min(processors, quota) : processors;
+    }
+
+    /*
+     * Nucleos permitidos pela cota do cgroup (arredondado para cima), ou -1 sem cota
+     */
+    static int containerCpuQuota() {
+        try {
+            Path cgroupV2 = Paths.get("/sys/fs/cgroup/cpu.max");
+            if (Files.isReadable(cgroupV2)) {
+                String[] fields = Files.readString(cgroupV2).trim().split("\\s+");
+                if (fields.length == 2 && !fields[0].equals("max")) {
+                    return (int) Math.ceil(Double.parseDouble(fields[0]) / Double.parseDouble(fields[1]));
+                }
+                return -1;
+            }
+            Path quota = Paths.get("/sys/fs/cgroup/cpu/cpu.cfs_quota_us");
+            Path period = Paths.get("/sys/fs/cgroup/cpu/cpu.cfs_period_us");
+            if (Files.isReadable(quota) && Files.isReadable(period)) {
+                long quotaMicros = Long.parseLong(Files.readString(quota).trim());
+                long periodMicros = Long.parseLong(Files.readString(period).trim());
+                if (quotaMicros > 0 && periodMicros > 0) {
+                    return (int) Math.ceil((double) quotaMicros / periodMicros);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Sem cgroup legivel: vale o que a JVM reporta
+        }
+        return -1;
+    }
+
+    private static long processCpuNanos() {
+        OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) bean).getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    public int total() {
+        return total;
+    }
+
+    public int mipThreads() {
+        return mipThreads;
+    }
+
+    public int heuristicThreads() {
+        return heuristicThreads;
+    }
+
+    public String describe() {
+        return String.format("Threads: total=%d (mip=%d, heuristic=%d)",
+                total, mipThreads, heuristicThreads);
+    }
+
+    /*
+     * Utilizacao = tempo de CPU do processo / (tempo de parede * threads do orcamento)
+     */
+    public String utilizationReport() {
+        double wallSeconds = (System.nanoTime() - startWallNanos) / 1e9;
+        long cpuNanos = processCpuNanos();
+        if (cpuNanos < 0 || startCpuNanos < 0 || wallSeconds <= 0) {
+            return describe() + " | CPU utilization: unavailable";
+        }
+        double cpuSeconds = (cpuNanos - startCpuNanos) / 1e9;
+        return String.format("%s | CPU utilization: %.1f%% (cpu %.1f s over %.1f s wall)",
+                describe(), 100.0 * cpuSeconds / (wallSeconds * total), cpuSeconds, wallSeconds);
+    }
+}
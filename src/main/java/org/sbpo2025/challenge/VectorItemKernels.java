@@ -0,0 +1,101 @@
+package org.sbpo2025.challenge;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+ * Versoes SIMD dos kernels de ItemKernels (so carregada quando o modulo de vetores esta
+ * presente). Os kernels densos andam de SPECIES.length() em SPECIES.length(); os de linha
+ * CSR usam gather/scatter pelos indices dos itens, que sao distintos dentro de uma linha,
+ * e so recebem linhas de pelo menos minRow() entradas; as sobras ficam no laco escalar.
+ */
+final class VectorItemKernels {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorItemKernels() {
+    }
+
+    /*
+     * Abaixo de 8 vetores o custo do gather/scatter passa do ganho (medido com --bench-kernels)
+     */
+    static int minRow() {
+        return 8 * SPECIES.length();
+    }
+
+    static String describe() {
+        return SPECIES.vectorBitSize() + " bits";
+    }
+
+    static boolean anyGreater(int[] a, int[] b, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            IntVector va = IntVector.fromArray(SPECIES, a, i);
+            IntVector vb = IntVector.fromArray(SPECIES, b, i);
+            if (va.compare(VectorOperators.GT, vb).anyTrue()) {
+                return true;
+            }
+        }
+        for (; i < length; i++) {
+            if (a[i] > b[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean anyNegative(int[] a, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            if (IntVector.fromArray(SPECIES, a, i).compare(VectorOperators.LT, 0).anyTrue()) {
+                return true;
+            }
+        }
+        for (; i < length; i++) {
+            if (a[i] < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static int minSlack(int[] slack, int[] items, int[] quantities, int begin, int end) {
+        int k = begin;
+        IntVector vmin = IntVector.broadcast(SPECIES, Integer.MAX_VALUE);
+        for (int bound = begin + SPECIES.loopBound(end - begin); k < bound; k += SPECIES.length()) {
+            IntVector gathered = IntVector.fromArray(SPECIES, slack, 0, items, k);
+            vmin = vmin.min(gathered.sub(IntVector.fromArray(SPECIES, quantities, k)));
+        }
+        int min = vmin.reduceLanes(VectorOperators.MIN);
+        for (; k < end; k++) {
+            min = Math.min(min, slack[items[k]] - quantities[k]);
+        }
+        return min;
+    }
+
+    static int addRow(int[] slack, int[] items, int[] quantities, int begin, int end, int sign) {
+        int violations = 0;
+        int k = begin;
+        for (int bound = begin + SPECIES.loopBound(end - begin); k < bound; k += SPECIES.length()) {
+            IntVector before = IntVector.fromArray(SPECIES, slack, 0, items, k);
+            IntVector after = before.add(IntVector.fromArray(SPECIES, quantities, k).mul(sign));
+            after.intoArray(slack, 0, items, k);
+            VectorMask<Integer> wasNegative = before.compare(VectorOperators.LT, 0);
+            VectorMask<Integer> isNegative = after.compare(VectorOperators.LT, 0);
+            violations += isNegative.andNot(wasNegative).trueCount() - wasNegative.andNot(isNegative).trueCount();
+        }
+        for (; k < end; k++) {
+            int item = items[k];
+            int before = slack[item];
+            int after = before + sign * quantities[k];
+            slack[item] = after;
+            if (before >= 0 && after < 0) {
+                violations++;
+            } else if (before < 0 && after >= 0) {
+                violations--;
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,227 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPSolver;
+import com.google.ortools.linearsolver.MPVariable;
+
+/*
+ * Desigualdades validas para o WaveModel, adicionadas antes do solve (o MPSolver nao
+ * expoe callbacks de corte no wrapper Java):
+ *
+ *   ligacao pedido -> corredores: para o item i do pedido o mais restritivo,
+ *     p_o <= sum_{a com i} min(1, s_ai / q_oi) c_a
+ *     (so entra quando algum coeficiente e truncado; senao ja e implicada por item_i)
+ *   coberturas nas linhas de item: relaxando item_i para o estoque total S_i, o
+ *     arredondamento de Chvatal-Gomory com divisor t (menor q_oi com mais de m pedidos
+ *     de q >= t e m = floor(S_i / t)) da a cobertura estendida ja levantada
+ *     sum_o floor(q_oi / t) p_o <= floor(S_i / t)
+ *   coberturas levantadas na linha waveSize: o mesmo arredondamento sobre
+ *     sum units_o p_o <= UB, com t = menor units_o > UB / (m + 1), m = 1..MAX_WAVE_COVERS
+ *   numero minimo de corredores: sum c_a >= k, com k o menor numero de corredores cujo
+ *     estoque total alcanca max(LB, 1)
+ */
+public class WaveCuts {
+    public record Stats(int linking, int itemCovers, int waveSizeCovers, int aisleCount) {
+        public int total() {
+            return linking + itemCovers + waveSizeCovers + aisleCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d cuts (linking %d, item covers %d, wave-size covers %d, aisle count %d)",
+                    total(), linking, itemCovers, waveSizeCovers, aisleCount);
+        }
+    }
+
+    private static final int MAX_LINK_AISLES = 64;
+    private static final int MAX_ITEM_COVERS = 2;
+    private static final int MAX_ITEM_MULTIPLE = 64;
+    private static final int MAX_WAVE_COVERS = 8;
+    private static final double EPSILON = 1e-9;
+
+    private final SparseInstance instance;
+    private final boolean[] servable;
+    private final int waveSizeLB;
+    private final int waveSizeUB;
+
+    public WaveCuts(SparseInstance instance, boolean[] servable, int waveSizeLB, int waveSizeUB) {
+        this.instance = instance;
+        this.servable = servable;
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+    }
+
+    public Stats addTo(WaveModel model) {
+        MPSolver solver = model.solver();
+        MPVariable[] p = model.orderVariables();
+        MPVariable[] c = model.aisleVariables();
+        return new Stats(addLinking(solver, p, c), addItemCovers(solver, p), addWaveSizeCovers(solver, p),
+                addAisleCount(solver, c));
+    }
+
+    /*
+     * Para cada pedido, o item com menor soma de min(1, s_ai / q_oi): o corte mais forte
+     * entre os do pedido
+     */
+    private int addLinking(MPSolver solver, MPVariable[] p, MPVariable[] c) {
+        int added = 0;
+        for (int o = 0; o < instance.nOrders(); o++) {
+            if (!servable[o]) {
+                continue;
+            }
+            int bestItem = -1;
+            int bestQuantity = 0;
+            double bestCoverage = Double.POSITIVE_INFINITY;
+            for (int k = instance.orderBegin(o); k < instance.orderEnd(o); k++) {
+                int item = instance.orderItem(k);
+                int quantity = instance.orderQuantity(k);
+                if (instance.itemAisleEnd(item) - instance.itemAisleBegin(item) > MAX_LINK_AISLES) {
+                    continue;
+                }
+                double coverage = 0;
+                boolean truncated = false;
+                for (int j = instance.itemAisleBegin(item); j < instance.itemAisleEnd(item); j++) {
+                    coverage += Math.min(1.0, (double) instance.itemAisleQuantity(j) / quantity);
+                    truncated |= instance.itemAisleQuantity(j) > quantity;
+                }
+                if (truncated && coverage < bestCoverage) {
+                    bestCoverage = coverage;
+                    bestItem = item;
+                    bestQuantity = quantity;
+                }
+            }
+            if (bestItem < 0) {
+                continue;
+            }
+            MPConstraint cut = solver.makeConstraint(Double.NEGATIVE_INFINITY, 0, "");
+            cut.setCoefficient(p[o], 1);
+            for (int j = instance.itemAisleBegin(bestItem); j < instance.itemAisleEnd(bestItem); j++) {
+                cut.setCoefficient(c[instance.itemAisle(j)],
+                        -Math.min(1.0, (double) instance.itemAisleQuantity(j) / bestQuantity));
+            }
+            added++;
+        }
+        return added;
+    }
+
+    /*
+     * Itens em que os pedidos atendiveis pedem mais do que o estoque total: coberturas
+     * estendidas para as MAX_ITEM_COVERS primeiras quantidades m que dao corte
+     */
+    private int addItemCovers(MPSolver solver, MPVariable[] p) {
+        int added = 0;
+        int[] quantities = new int[instance.nOrders()];
+        for (int item = 0; item < instance.nItems(); item++) {
+            long stock = 0;
+            for (int j = instance.itemAisleBegin(item); j < instance.itemAisleEnd(item); j++) {
+                stock += instance.itemAisleQuantity(j);
+            }
+            int n = 0;
+            long demand = 0;
+            for (int k = instance.itemOrderBegin(item); k < instance.itemOrderEnd(item); k++) {
+                if (servable[instance.itemOrder(k)]) {
+                    quantities[n++] = instance.itemOrderQuantity(k);
+                    demand += instance.itemOrderQuantity(k);
+                }
+            }
+            if (demand <= stock || n < 2) {
+                continue;
+            }
+            Arrays.sort(quantities, 0, n);
+            int covers = 0;
+            for (long m = 1; m < Math.min(n, MAX_ITEM_MULTIPLE) && covers < MAX_ITEM_COVERS; m++) {
+                // Menor quantidade t com t > stock / (m + 1): m + 1 pedidos com q >= t nao cabem
+                int divisor = smallestAbove(quantities, n, (double) stock / (m + 1));
+                if (divisor < 0 || stock / divisor != m || countAtLeast(quantities, n, divisor) <= m) {
+                    continue;
+                }
+                MPConstraint cut = solver.makeConstraint(Double.NEGATIVE_INFINITY, m, "");
+                for (int k = instance.itemOrderBegin(item); k < instance.itemOrderEnd(item); k++) {
+                    int order = instance.itemOrder(k);
+                    if (servable[order] && instance.itemOrderQuantity(k) >= divisor) {
+                        cut.setCoefficient(p[order], instance.itemOrderQuantity(k) / divisor);
+                    }
+                }
+                covers++;
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private int addWaveSizeCovers(MPSolver solver, MPVariable[] p) {
+        int[] units = new int[instance.nOrders()];
+        int n = 0;
+        for (int o = 0; o < instance.nOrders(); o++) {
+            if (servable[o]) {
+                units[n++] = instance.orderUnits(o);
+            }
+        }
+        Arrays.sort(units, 0, n);
+        int added = 0;
+        int lastDivisor = -1;
+        for (int m = 1; m <= MAX_WAVE_COVERS && m < n; m++) {
+            int divisor = smallestAbove(units, n, (double) waveSizeUB / (m + 1));
+            if (divisor <= 0 || divisor == lastDivisor || waveSizeUB / divisor != m
+                    || countAtLeast(units, n, divisor) <= m) {
+                continue;
+            }
+            lastDivisor = divisor;
+            MPConstraint cut = solver.makeConstraint(Double.NEGATIVE_INFINITY, m, "");
+            for (int o = 0; o < instance.nOrders(); o++) {
+                if (servable[o] && instance.orderUnits(o) >= divisor) {
+                    cut.setCoefficient(p[o], instance.orderUnits(o) / divisor);
+                }
+            }
+            added++;
+        }
+        return added;
+    }
+
+    private int addAisleCount(MPSolver solver, MPVariable[] c) {
+        int nAisles = instance.nAisles();
+        long[] stock = new long[nAisles];
+        for (int a = 0; a < nAisles; a++) {
+            for (int k = instance.aisleBegin(a); k < instance.aisleEnd(a); k++) {
+                stock[a] += instance.aisleQuantity(k);
+            }
+        }
+        Arrays.sort(stock);
+        long total = 0;
+        int k = 0;
+        while (k < nAisles && total < Math.max(waveSizeLB, 1)) {
+            total += stock[nAisles - 1 - k];
+            k++;
+        }
+        if (k <= 1) {
+            return 0;
+        }
+        MPConstraint cut = solver.makeConstraint(k, Double.POSITIVE_INFINITY, "");
+        for (MPVariable aisle : c) {
+            cut.setCoefficient(aisle, 1);
+        }
+        return 1;
+    }
+
+    /*
+     * Menor valor de sorted[0, n) estritamente maior que bound, ou -1
+     */
+    private static int smallestAbove(int[] sorted, int n, double bound) {
+        for (int k = 0; k < n; k++) {
+            if (sorted[k] > bound + EPSILON) {
+                return sorted[k];
+            }
+        }
+        return -1;
+    }
+
+    private static int countAtLeast(int[] sorted, int n, int value) {
+        int k = Arrays.binarySearch(sorted, 0, n, value);
+        while (k > 0 && sorted[k - 1] == value) {
+            k--;
+        }
+        return n - (k < 0 ? -k - 1 : k);
+    }
+}
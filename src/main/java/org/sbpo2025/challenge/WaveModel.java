@@ -0,0 +1,213 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPConstraintProto;
+import com.google.ortools.linearsolver.MPModelProto;
+import com.google.ortools.linearsolver.MPObjective;
+import com.google.ortools.linearsolver.MPSolver;
+import com.google.ortools.linearsolver.MPVariable;
+import com.google.ortools.linearsolver.MPVariableProto;
+
+/*
+ * Modelo MIP de uma wave dentro de um MPSolver:
+ *   p_o, c_a binarias
+ *   max(LB, 1) <= sum units_o p_o <= UB                      (waveSize)
+ *   sum_o q_oi p_o - sum_a s_ai c_a <= 0   para cada item i  (item_i)
+ *   min UB * sum c_a - sum units_o p_o
+ *
+ * Dois caminhos de construcao: DIRECT cria cada variavel e cada coeficiente com uma
+ * chamada JNI, PROTO monta o MPModelProto em Java a partir dos arrays primitivos e
+ * carrega tudo no solver de uma vez. Nomes de variaveis e restricoes sao opcionais.
+ */
+public class WaveModel {
+    public enum BuildMode { DIRECT, PROTO }
+
+    public static final String WAVE_SIZE = "waveSize";
+
+    private final MPSolver solver;
+    private final MPVariable[] p;
+    private final MPVariable[] c;
+    private final MPConstraint waveSize;
+
+    private WaveModel(MPSolver solver, MPVariable[] p, MPVariable[] c, MPConstraint waveSize) {
+        this.solver = solver;
+        this.p = p;
+        this.c = c;
+        this.waveSize = waveSize;
+    }
+
+    public static WaveModel build(MPSolver solver, SparseInstance instance, boolean[] servable,
+                                  int waveSizeLB, int waveSizeUB, BuildMode mode, boolean names) {
+        return mode == BuildMode.PROTO
+                ? buildFromProto(solver, instance, servable, waveSizeLB, waveSizeUB, names)
+                : buildDirect(solver, instance, servable, waveSizeLB, waveSizeUB, names);
+    }
+
+    private static WaveModel buildDirect(MPSolver solver, SparseInstance instance, boolean[] servable,
+                                         int waveSizeLB, int waveSizeUB, boolean names) {
+        int nOrders = instance.nOrders();
+        int nAisles = instance.nAisles();
+
+        // Criação das boolenas de corredores(c) e pedidos(p)
+        MPVariable[] p = new MPVariable[nOrders];
+        MPVariable[] c = new MPVariable[nAisles];
+        for (int i = 0; i < nOrders; i++) {
+            p[i] = solver.makeBoolVar(names ? "p_" + i : "");
+            if (!servable[i]) {
+                p[i].setUb(0);
+            }
+        }
+        for (int i = 0; i < nAisles; i++) {
+            c[i] = solver.makeBoolVar(names ? "c_" + i : "");
+        }
+
+        // Restrição de tamanho da wave (LB e UB)
+        MPConstraint waveSize = solver.makeConstraint(Math.max(waveSizeLB, 1), waveSizeUB, WAVE_SIZE);
+        for (int i = 0; i < nOrders; i++) {
+            waveSize.setCoefficient(p[i], instance.orderUnits(i));
+        }
+
+        // Restrições de disponibilidade de itens (só itens pedidos por algum pedido atendível)
+        for (int item = 0; item < instance.nItems(); item++) {
+            if (!isDemanded(instance, servable, item)) {
+                continue;
+            }
+            MPConstraint itemConstraint = solver.makeConstraint(
+                    Double.NEGATIVE_INFINITY, 0, names ? "item_" + item : "");
+            for (int k = instance.itemOrderBegin(item); k < instance.itemOrderEnd(item); k++) {
+                if (servable[instance.itemOrder(k)]) {
+                    itemConstraint.setCoefficient(p[instance.itemOrder(k)], instance.itemOrderQuantity(k));
+                }
+            }
+            for (int k = instance.itemAisleBegin(item); k < instance.itemAisleEnd(item); k++) {
+                itemConstraint.setCoefficient(c[instance.itemAisle(k)], -instance.itemAisleQuantity(k));
+            }
+        }
+
+        // Objetivo
+        // Min (UB*(total de corredores acessado) - (total de itens selecionados))
+        MPObjective objective = solver.objective();
+        for (int i = 0; i < nAisles; i++) {
+            objective.setCoefficient(c[i], waveSizeUB);
+        }
+        for (int i = 0; i < nOrders; i++) {
+            objective.setCoefficient(p[i], -instance.orderUnits(i));
+        }
+        objective.setMinimization();
+
+        return new WaveModel(solver, p, c, waveSize);
+    }
+
+    private static WaveModel buildFromProto(MPSolver solver, SparseInstance instance, boolean[] servable,
+                                            int waveSizeLB, int waveSizeUB, boolean names) {
+        int nOrders = instance.nOrders();
+        int nAisles = instance.nAisles();
+        MPModelProto.Builder model = MPModelProto.newBuilder().setMaximize(false);
+
+        // Variaveis: p_0..p_{n-1} e depois c_0..c_{m-1}, com o objetivo embutido
+        for (int i = 0; i < nOrders; i++) {
+            MPVariableProto.Builder variable = MPVariableProto.newBuilder()
+                    .setLowerBound(0).setUpperBound(servable[i] ? 1 : 0).setIsInteger(true)
+                    .setObjectiveCoefficient(-instance.orderUnits(i));
+            if (names) {
+                variable.setName("p_" + i);
+            }
+            model.addVariable(variable);
+        }
+        for (int i = 0; i < nAisles; i++) {
+            MPVariableProto.Builder variable = MPVariableProto.newBuilder()
+                    .setLowerBound(0).setUpperBound(1).setIsInteger(true)
+                    .setObjectiveCoefficient(waveSizeUB);
+            if (names) {
+                variable.setName("c_" + i);
+            }
+            model.addVariable(variable);
+        }
+
+        MPConstraintProto.Builder waveSize = MPConstraintProto.newBuilder()
+                .setLowerBound(Math.max(waveSizeLB, 1)).setUpperBound(waveSizeUB).setName(WAVE_SIZE);
+        for (int i = 0; i < nOrders; i++) {
+            waveSize.addVarIndex(i).addCoefficient(instance.orderUnits(i));
+        }
+        model.addConstraint(waveSize);
+
+        for (int item = 0; item < instance.nItems(); item++) {
+            if (!isDemanded(instance, servable, item)) {
+                continue;
+            }
+            MPConstraintProto.Builder itemConstraint = MPConstraintProto.newBuilder()
+                    .setLowerBound(Double.NEGATIVE_INFINITY).setUpperBound(0);
+            if (names) {
+                itemConstraint.setName("item_" + item);
+            }
+            for (int k = instance.itemOrderBegin(item); k < instance.itemOrderEnd(item); k++) {
+                if (servable[instance.itemOrder(k)]) {
+                    itemConstraint.addVarIndex(instance.itemOrder(k)).addCoefficient(instance.itemOrderQuantity(k));
+                }
+            }
+            for (int k = instance.itemAisleBegin(item); k < instance.itemAisleEnd(item); k++) {
+                itemConstraint.addVarIndex(nOrders + instance.itemAisle(k)).addCoefficient(-instance.itemAisleQuantity(k));
+            }
+            model.addConstraint(itemConstraint);
+        }
+
+        String error = names ? solver.loadModelFromProtoKeepNames(model.build()) : solver.loadModelFromProto(model.build());
+        if (!error.isEmpty()) {
+            throw new IllegalStateException("Failed to load wave model: " + error);
+        }
+
+        MPVariable[] variables = solver.variables();
+        return new WaveModel(solver, Arrays.copyOfRange(variables, 0, nOrders),
+                Arrays.copyOfRange(variables, nOrders, nOrders + nAisles), solver.constraint(0));
+    }
+
+    private static boolean isDemanded(SparseInstance instance, boolean[] servable, int item) {
+        for (int k = instance.itemOrderBegin(item); k < instance.itemOrderEnd(item); k++) {
+            if (servable[instance.itemOrder(k)]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public MPSolver solver() {
+        return solver;
+    }
+
+    public MPVariable[] orderVariables() {
+        return p;
+    }
+
+    public MPVariable[] aisleVariables() {
+        return c;
+    }
+
+    public MPConstraint waveSizeConstraint() {
+        return waveSize;
+    }
+
+    /*
+     * Le a solucao corrente do solver
+     */
+    public CompactSolution extractSolution() {
+        int[] selectedOrders = new int[p.length];
+        int nSelectedOrders = 0;
+        int[] accessedAisles = new int[c.length];
+        int nAccessedAisles = 0;
+
+        for (int i = 0; i < p.length; i++) {
+            if (p[i].solutionValue() > 0.5) {
+                selectedOrders[nSelectedOrders++] = i;
+            }
+        }
+        for (int i = 0; i < c.length; i++) {
+            if (c[i].solutionValue() > 0.5) {
+                accessedAisles[nAccessedAisles++] = i;
+            }
+        }
+        return CompactSolution.of(
+                Arrays.copyOf(selectedOrders, nSelectedOrders), Arrays.copyOf(accessedAisles, nAccessedAisles));
+    }
+}
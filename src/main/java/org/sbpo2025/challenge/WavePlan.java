@@ -0,0 +1,22 @@
+package org.sbpo2025.challenge;
+
+import java.util.List;
+
+/*
+ * Sequencia de waves que cobre o backlog, com as metricas agregadas
+ */
+public record WavePlan(List<CompactSolution> waves, long totalUnits, long totalAisleVisits,
+                       int assignedOrders, int unassignedOrders, long elapsedMillis) {
+
+    public double averageUnitsPerAisleVisit() {
+        return totalAisleVisits == 0 ? 0.0 : (double) totalUnits / totalAisleVisits;
+    }
+
+    public String summary() {
+        return String.format(
+                "Waves: %d | orders assigned: %d | orders unassigned: %d | units: %d | aisle visits: %d | "
+                        + "units per aisle visit: %.4f | time: %d ms",
+                waves.size(), assignedOrders, unassignedOrders, totalUnits, totalAisleVisits,
+                averageUnitsPerAisleVisit(), elapsedMillis);
+    }
+}
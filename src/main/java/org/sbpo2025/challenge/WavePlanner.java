@@ -0,0 +1,261 @@
+package org.sbpo2025.challenge;
+
+import org.apache.commons.lang3.time.StopWatch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Particiona o backlog inteiro em uma sequencia de waves. A cada rodada os pedidos
+ * restantes sao divididos em pools disjuntos, cada pool gera uma wave candidata em
+ * paralelo com o ChallengeSolver, e as candidatas sao aceitas da melhor para a pior
+ * enquanto couberem no estoque residual dos corredores.
+ */
+public class WavePlanner {
+    private static final long MIN_SLICE_MILLIS = 1000;
+
+    private final List<Map<Integer, Integer>> orders;
+    private final List<Map<Integer, Integer>> aisles;
+    private final int nItems;
+    private final int waveSizeLB;
+    private final int waveSizeUB;
+    private final int parallelism;
+    private final long[] unitsPerOrder;
+    private final SparseInstance instance;
+    private final ItemCoverage coverage;
+
+    public WavePlanner(List<Map<Integer, Integer>> orders, List<Map<Integer, Integer>> aisles, int nItems,
+                       int waveSizeLB, int waveSizeUB, int parallelism) {
+        this.orders = orders;
+        this.aisles = aisles;
+        this.nItems = nItems;
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+        this.parallelism = Math.max(parallelism, 1);
+        this.unitsPerOrder = new long[orders.size()];
+        for (int o = 0; o < orders.size(); o++) {
+            for (int quantity : orders.get(o).values()) {
+                unitsPerOrder[o] += quantity;
+            }
+        }
+        this.instance = new SparseInstance(orders, aisles, nItems);
+        this.coverage = new ItemCoverage(instance);
+    }
+
+    public WavePlan plan(StopWatch stopWatch) {
+        long remainingMillis = ChallengeSolver.MAX_RUNTIME - stopWatch.getTime(TimeUnit.MILLISECONDS) - 5000;
+        return plan(Math.max(remainingMillis, 0));
+    }
+
+    public WavePlan plan(long timeLimitMillis) {
+        long start = System.currentTimeMillis();
+        long deadline = start + timeLimitMillis;
+
+        // Estoque residual: cada wave aceita consome unidades dos seus corredores
+        List<Map<Integer, Integer>> stock = new ArrayList<>(aisles.size());
+        for (Map<Integer, Integer> aisle : aisles) {
+            stock.add(new HashMap<>(aisle));
+        }
+
+        boolean[] assigned = new boolean[orders.size()];
+        List<CompactSolution> waves = new ArrayList<>();
+        long totalUnits = 0;
+        long totalAisleVisits = 0;
+        int assignedOrders = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            while (true) {
+                long remainingMillis = deadline - System.currentTimeMillis();
+                boolean[] servable = screenOrders(stock);
+                List<Integer> remaining = new ArrayList<>();
+                long remainingUnits = 0;
+                for (int o = 0; o < orders.size(); o++) {
+                    if (!assigned[o] && servable[o]) {
+                        remaining.add(o);
+                        remainingUnits += unitsPerOrder[o];
+                    }
+                }
+                if (remaining.isEmpty() || remainingMillis <= 0 || remainingUnits < Math.max(waveSizeLB, 1)) {
+                    break;
+                }
+
+                // Pools pequenos demais limitam a qualidade da wave, entao cada pool tem folga para ~2 waves
+                int nPools = (int) Math.max(1, Math.min(parallelism, remainingUnits / (2L * waveSizeUB)));
+                List<List<Integer>> pools = partition(remaining, nPools);
+                long estimatedRounds = Math.max(1, remainingUnits / ((long) waveSizeUB * nPools));
+                long slice = Math.min(remainingMillis, Math.max(MIN_SLICE_MILLIS, remainingMillis / estimatedRounds));
+                int threadsPerPool = Math.max(1, parallelism / nPools);
+
+                List<Future<CompactSolution>> futures = new ArrayList<>(nPools);
+                for (List<Integer> pool : pools) {
+                    futures.add(executor.submit(() -> solvePool(pool, stock, slice, threadsPerPool)));
+                }
+                List<CompactSolution> candidates = new ArrayList<>();
+                for (Future<CompactSolution> future : futures) {
+                    CompactSolution candidate = await(future);
+                    if (candidate != null) {
+                        candidates.add(candidate);
+                    }
+                }
+                candidates.sort(Comparator.comparingDouble(this::ratio).reversed());
+
+                boolean progress = false;
+                for (CompactSolution candidate : candidates) {
+                    if (!fitsStock(candidate, stock)) {
+                        continue;
+                    }
+                    consumeStock(candidate, stock);
+                    waves.add(candidate);
+                    for (int k = 0; k < candidate.orderCount(); k++) {
+                        assigned[candidate.order(k)] = true;
+                        totalUnits += unitsPerOrder[candidate.order(k)];
+                    }
+                    assignedOrders += candidate.orderCount();
+                    totalAisleVisits += candidate.aisleCount();
+                    progress = true;
+                }
+                if (!progress) {
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return new WavePlan(waves, totalUnits, totalAisleVisits, assignedOrders,
+                orders.size() - assignedOrders, System.currentTimeMillis() - start);
+    }
+
+    /*
+     * Pedidos que o estoque residual ainda consegue atender: triagem por presenca de
+     * itens (bitset) e, para quem passa, checagem exata das quantidades
+     */
+    private boolean[] screenOrders(List<Map<Integer, Integer>> stock) {
+        int[] residual = new int[nItems];
+        long[] mask = coverage.newMask();
+        for (Map<Integer, Integer> aisleStock : stock) {
+            for (Map.Entry<Integer, Integer> entry : aisleStock.entrySet()) {
+                residual[entry.getKey()] += entry.getValue();
+                ItemCoverage.setItem(mask, entry.getKey());
+            }
+        }
+        boolean[] servable = new boolean[orders.size()];
+        for (int o = 0; o < orders.size(); o++) {
+            if (!coverage.covers(mask, o)) {
+                continue;
+            }
+            boolean fits = true;
+            for (int k = instance.orderBegin(o); k < instance.orderEnd(o) && fits; k++) {
+                fits = instance.orderQuantity(k) <= residual[instance.orderItem(k)];
+            }
+            servable[o] = fits;
+        }
+        return servable;
+    }
+
+    /*
+     * Reparte os pedidos em round-robin por unidades decrescentes para que os pools fiquem equilibrados
+     */
+    private List<List<Integer>> partition(List<Integer> remaining, int nPools) {
+        List<Integer> sorted = new ArrayList<>(remaining);
+        sorted.sort((a, b) -> Long.compare(unitsPerOrder[b], unitsPerOrder[a]));
+        List<List<Integer>> pools = new ArrayList<>(nPools);
+        for (int k = 0; k < nPools; k++) {
+            pools.add(new ArrayList<>());
+        }
+        for (int k = 0; k < sorted.size(); k++) {
+            pools.get(k % nPools).add(sorted.get(k));
+        }
+        return pools;
+    }
+
+    private CompactSolution solvePool(List<Integer> pool, List<Map<Integer, Integer>> stock,
+                                        long sliceMillis, int threads) {
+        List<Map<Integer, Integer>> poolOrders = new ArrayList<>(pool.size());
+        for (int o : pool) {
+            poolOrders.add(orders.get(o));
+        }
+        ChallengeSolver solver = new ChallengeSolver(poolOrders, stock, nItems, waveSizeLB, waveSizeUB);
+        // Os pools rodam juntos: cada solver divide so a sua fatia entre MIP e heuristicas
+        solver.setThreadBudget(ThreadBudget.split(threads));
+        CompactSolution local = solver.solveCompact(sliceMillis);
+        if (local == null) {
+            return null;
+        }
+
+        // Traduz os indices locais do pool para os indices globais
+        int[] globalOrders = new int[local.orderCount()];
+        for (int k = 0; k < globalOrders.length; k++) {
+            globalOrders[k] = pool.get(local.order(k));
+        }
+        return CompactSolution.of(globalOrders, local.aisles());
+    }
+
+    private CompactSolution await(Future<CompactSolution> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            System.err.println("Wave construction failed");
+            e.getCause().printStackTrace();
+            return null;
+        }
+    }
+
+    private double ratio(CompactSolution wave) {
+        long units = 0;
+        for (int k = 0; k < wave.orderCount(); k++) {
+            units += unitsPerOrder[wave.order(k)];
+        }
+        return (double) units / wave.aisleCount();
+    }
+
+    private boolean fitsStock(CompactSolution wave, List<Map<Integer, Integer>> stock) {
+        int[] slack = new int[nItems];
+        for (int j = 0; j < wave.aisleCount(); j++) {
+            for (Map.Entry<Integer, Integer> entry : stock.get(wave.aisle(j)).entrySet()) {
+                slack[entry.getKey()] += entry.getValue();
+            }
+        }
+        for (int j = 0; j < wave.orderCount(); j++) {
+            int o = wave.order(j);
+            instance.addOrderRow(slack, o, -1);
+        }
+        return !ItemKernels.anyNegative(slack, nItems);
+    }
+
+    private void consumeStock(CompactSolution wave, List<Map<Integer, Integer>> stock) {
+        for (int j = 0; j < wave.orderCount(); j++) {
+            int o = wave.order(j);
+            for (int k = instance.orderBegin(o); k < instance.orderEnd(o); k++) {
+                int item = instance.orderItem(k);
+                int needed = instance.orderQuantity(k);
+                for (int a = 0; a < wave.aisleCount() && needed > 0; a++) {
+                    Map<Integer, Integer> aisleStock = stock.get(wave.aisle(a));
+                    int available = aisleStock.getOrDefault(item, 0);
+                    int taken = Math.min(available, needed);
+                    if (taken == 0) {
+                        continue;
+                    }
+                    needed -= taken;
+                    if (available == taken) {
+                        aisleStock.remove(item);
+                    } else {
+                        aisleStock.put(item, available - taken);
+                    }
+                }
+            }
+        }
+    }
+}
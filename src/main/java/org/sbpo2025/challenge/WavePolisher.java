@@ -0,0 +1,136 @@
+package org.sbpo2025.challenge;
+
+import java.util.Arrays;
+
+/*
+ * Polimento da wave final, antes de gravar a saida, sobre o WaveState:
+ *   - fecha corredores do menos para o mais util (unidades do estoque que cobrem a demanda
+ *     dos pedidos da wave) enquanto toda folga fica nao negativa;
+ *   - com os corredores que sobraram, insere na folga os pedidos serviveis que cabem, dos
+ *     com mais unidades para os com menos, ate o UB.
+ * As duas etapas so aumentam a razao e mantem o LB. Custa uma passada pelas linhas dos
+ * corredores da wave e dos pedidos: poucos milissegundos mesmo nas maiores instancias.
+ */
+public class WavePolisher {
+    private final SparseInstance instance;
+    private final WaveState state;
+    private final int[] candidates;
+    private final int[] demand;
+
+    private int removedAisles;
+    private int addedOrders;
+    private long addedUnits;
+
+    public WavePolisher(SparseInstance instance, boolean[] servable, int waveSizeLB, int waveSizeUB) {
+        this.instance = instance;
+        this.state = new WaveState(instance, waveSizeLB, waveSizeUB);
+        this.demand = new int[instance.nItems()];
+
+        // Pedidos serviveis, do maior para o menor em unidades
+        int n = 0;
+        for (int o = 0; o < servable.length; o++) {
+            if (servable[o]) {
+                n++;
+            }
+        }
+        long[] keys = new long[n];
+        n = 0;
+        for (int o = 0; o < servable.length; o++) {
+            if (servable[o]) {
+                keys[n++] = ((long) -instance.orderUnits(o) << 32) | o;
+            }
+        }
+        Arrays.sort(keys);
+        this.candidates = new int[n];
+        for (int k = 0; k < n; k++) {
+            candidates[k] = (int) keys[k];
+        }
+    }
+
+    /*
+     * Wave polida; a propria wave se ela for inviavel ou nada mudar
+     */
+    public CompactSolution polish(CompactSolution wave) {
+        if (!start(wave)) {
+            return wave;
+        }
+        dropAisles(wave);
+        long units = state.units();
+        fillSlack();
+        addedUnits = state.units() - units;
+        return removedAisles == 0 && addedOrders == 0 ? wave : state.toSolution();
+    }
+
+    /*
+     * So a primeira etapa: as unidades ficam e os corredores so diminuem, entao a wave
+     * continua dentro de qualquer orcamento de corredores que ja respeitava (fronteira)
+     */
+    public CompactSolution trim(CompactSolution wave) {
+        if (!start(wave)) {
+            return wave;
+        }
+        dropAisles(wave);
+        return removedAisles == 0 ? wave : state.toSolution();
+    }
+
+    private boolean start(CompactSolution wave) {
+        removedAisles = 0;
+        addedOrders = 0;
+        addedUnits = 0;
+        if (wave == null || wave.isEmpty()) {
+            return false;
+        }
+        state.load(wave);
+        return state.isFeasible();
+    }
+
+    private void dropAisles(CompactSolution wave) {
+        for (int k = 0; k < wave.orderCount(); k++) {
+            int order = wave.order(k);
+            for (int j = instance.orderBegin(order); j < instance.orderEnd(order); j++) {
+                demand[instance.orderItem(j)] += instance.orderQuantity(j);
+            }
+        }
+        long[] keys = new long[wave.aisleCount()];
+        for (int k = 0; k < wave.aisleCount(); k++) {
+            int aisle = wave.aisle(k);
+            long useful = 0;
+            for (int j = instance.aisleBegin(aisle); j < instance.aisleEnd(aisle); j++) {
+                useful += Math.min(instance.aisleQuantity(j), demand[instance.aisleItem(j)]);
+            }
+            keys[k] = (useful << 32) | aisle;
+        }
+        for (int k = 0; k < wave.orderCount(); k++) {
+            int order = wave.order(k);
+            for (int j = instance.orderBegin(order); j < instance.orderEnd(order); j++) {
+                demand[instance.orderItem(j)] = 0;
+            }
+        }
+
+        Arrays.sort(keys);
+        for (long key : keys) {
+            int aisle = (int) key;
+            if (state.aisleCount() > 1 && state.canRemoveAisle(aisle)) {
+                state.removeAisle(aisle);
+                removedAisles++;
+            }
+        }
+    }
+
+    private void fillSlack() {
+        for (int order : candidates) {
+            if (state.units() >= state.waveSizeUB()) {
+                break;
+            }
+            if (!state.hasOrder(order) && state.canAddOrder(order)) {
+                state.addOrder(order);
+                addedOrders++;
+            }
+        }
+    }
+
+    public String describe() {
+        return String.format("Polish: %d aisles removed, %d orders added (+%d units)",
+                removedAisles, addedOrders, addedUnits);
+    }
+}
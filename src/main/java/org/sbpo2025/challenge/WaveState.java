@@ -0,0 +1,161 @@
+package org.sbpo2025.challenge;
+
+/*
+ * Avaliador incremental de uma wave. Mantem por item a folga (estoque dos corredores
+ * abertos - demanda dos pedidos escolhidos), o total de unidades e quantos itens estao
+ * com folga negativa. Adicionar/remover pedido ou corredor custa O(itens da linha) e
+ * nao aloca nada.
+ */
+public class WaveState {
+    private final SparseInstance instance;
+    private final int waveSizeLB;
+    private final int waveSizeUB;
+    private final int[] slack;
+    private final boolean[] orderIn;
+    private final boolean[] aisleIn;
+    private int orderCount;
+    private int aisleCount;
+    private long units;
+    private int violations;
+
+    public WaveState(SparseInstance instance, int waveSizeLB, int waveSizeUB) {
+        this.instance = instance;
+        this.waveSizeLB = waveSizeLB;
+        this.waveSizeUB = waveSizeUB;
+        this.slack = new int[instance.nItems()];
+        this.orderIn = new boolean[instance.nOrders()];
+        this.aisleIn = new boolean[instance.nAisles()];
+    }
+
+    public SparseInstance instance() {
+        return instance;
+    }
+
+    public void addOrder(int order) {
+        orderIn[order] = true;
+        orderCount++;
+        units += instance.orderUnits(order);
+        violations += instance.addOrderRow(slack, order, -1);
+    }
+
+    public void removeOrder(int order) {
+        orderIn[order] = false;
+        orderCount--;
+        units -= instance.orderUnits(order);
+        violations += instance.addOrderRow(slack, order, 1);
+    }
+
+    public void addAisle(int aisle) {
+        aisleIn[aisle] = true;
+        aisleCount++;
+        violations += instance.addAisleRow(slack, aisle, 1);
+    }
+
+    public void removeAisle(int aisle) {
+        aisleIn[aisle] = false;
+        aisleCount--;
+        violations += instance.addAisleRow(slack, aisle, -1);
+    }
+
+    /*
+     * O pedido cabe na folga atual e no UB?
+     */
+    public boolean canAddOrder(int order) {
+        if (units + instance.orderUnits(order) > waveSizeUB) {
+            return false;
+        }
+        return instance.orderMinSlack(slack, order) >= 0;
+    }
+
+    /*
+     * Fechar o corredor mantem todos os itens com folga nao negativa?
+     */
+    public boolean canRemoveAisle(int aisle) {
+        return instance.aisleMinSlack(slack, aisle) >= 0;
+    }
+
+    public boolean isFeasible() {
+        return violations == 0 && orderCount > 0 && aisleCount > 0 && units >= waveSizeLB && units <= waveSizeUB;
+    }
+
+    public double ratio() {
+        return aisleCount == 0 ? 0.0 : (double) units / aisleCount;
+    }
+
+    public int slack(int item) {
+        return slack[item];
+    }
+
+    public boolean hasOrder(int order) {
+        return orderIn[order];
+    }
+
+    public boolean hasAisle(int aisle) {
+        return aisleIn[aisle];
+    }
+
+    public int orderCount() {
+        return orderCount;
+    }
+
+    public int aisleCount() {
+        return aisleCount;
+    }
+
+    public long units() {
+        return units;
+    }
+
+    public int violations() {
+        return violations;
+    }
+
+    public int waveSizeLB() {
+        return waveSizeLB;
+    }
+
+    public int waveSizeUB() {
+        return waveSizeUB;
+    }
+
+    public void clear() {
+        for (int o = 0; o < orderIn.length; o++) {
+            if (orderIn[o]) {
+                removeOrder(o);
+            }
+        }
+        for (int a = 0; a < aisleIn.length; a++) {
+            if (aisleIn[a]) {
+                removeAisle(a);
+            }
+        }
+    }
+
+    public void load(CompactSolution solution) {
+        clear();
+        for (int k = 0; k < solution.aisleCount(); k++) {
+            addAisle(solution.aisle(k));
+        }
+        for (int k = 0; k < solution.orderCount(); k++) {
+            addOrder(solution.order(k));
+        }
+    }
+
+    public CompactSolution toSolution() {
+        int[] orders = new int[orderCount];
+        int n = 0;
+        for (int o = 0; o < orderIn.length; o++) {
+            if (orderIn[o]) {
+                orders[n++] = o;
+            }
+        }
+        int[] aisles = new int[aisleCount];
+        n = 0;
+        for (int a = 0; a < aisleIn.length; a++) {
+            if (aisleIn[a]) {
+                aisles[n++] = a;
+            }
+        }
+        return CompactSolution.of(orders, aisles);
+    }
+}